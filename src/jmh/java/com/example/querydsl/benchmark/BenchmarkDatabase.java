@@ -0,0 +1,79 @@
+package com.example.querydsl.benchmark;
+
+import com.example.querydsl.QuerydslApplication;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 벤치마크용 임베디드 H2 + 애플리케이션 컨텍스트
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+
+  private static final int TEAM_COUNT = 10;
+  private static final int FLUSH_SIZE = 1_000;
+
+  private final ConfigurableApplicationContext context;
+
+  private BenchmarkDatabase(ConfigurableApplicationContext context) {
+    this.context = context;
+  }
+
+  static BenchmarkDatabase start(int rowCount) {
+    ConfigurableApplicationContext context = new SpringApplicationBuilder(QuerydslApplication.class)
+        .web(WebApplicationType.NONE)
+        .run(
+            "--spring.profiles.active=bench",
+            "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+            "--spring.jpa.show-sql=false",
+            "--decorator.datasource.p6spy.enable-logging=false"
+        );
+    BenchmarkDatabase database = new BenchmarkDatabase(context);
+    database.seed(rowCount);
+    return database;
+  }
+
+  EntityManager createEntityManager() {
+    return context.getBean(EntityManagerFactory.class).createEntityManager();
+  }
+
+  <T> T getBean(Class<T> type) {
+    return context.getBean(type);
+  }
+
+  private void seed(int rowCount) {
+    EntityManager entityManager = createEntityManager();
+    try {
+      entityManager.getTransaction().begin();
+      List<Team> teams = new ArrayList<>();
+      for (int i = 0; i < TEAM_COUNT; i++) {
+        Team team = new Team("team" + i);
+        entityManager.persist(team);
+        teams.add(team);
+      }
+      for (int i = 0; i < rowCount; i++) {
+        entityManager.persist(new Member("member" + i, i % 100, teams.get(i % TEAM_COUNT)));
+        if ((i + 1) % FLUSH_SIZE == 0) {
+          entityManager.flush();
+          entityManager.clear();
+          teams.replaceAll(team -> entityManager.getReference(Team.class, team.getId()));
+        }
+      }
+      entityManager.getTransaction().commit();
+    } finally {
+      entityManager.close();
+    }
+  }
+
+  @Override
+  public void close() {
+    context.close();
+  }
+
+}
@@ -0,0 +1,123 @@
+package com.example.querydsl.benchmark;
+
+import static com.example.querydsl.entity.QMember.member;
+import static com.example.querydsl.entity.QTeam.team;
+import static com.querydsl.core.types.Projections.bean;
+import static com.querydsl.core.types.Projections.constructor;
+import static com.querydsl.core.types.Projections.fields;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.dto.QMemberTeamDto;
+import com.example.querydsl.repository.MemberJpaRepository;
+import com.example.querydsl.repository.MemberRepository;
+import com.querydsl.core.types.Expression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * 임베디드 H2에 rowCount건을 넣어두고 end-to-end 조회 비용을 측정
+ * - 프로젝션: QMemberTeamDto, Projections.bean, Projections.fields, Projections.constructor
+ * - 동적 쿼리: searchByBuilder vs searchByWhere vs shape별 JPQL 템플릿 캐시
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FetchBenchmark {
+
+  @Param({"1000", "10000"})
+  public int rowCount;
+
+  @Param({"100"})
+  public int pageSize;
+
+  private BenchmarkDatabase database;
+  private EntityManager entityManager;
+  private JPAQueryFactory queryFactory;
+  private MemberJpaRepository memberJpaRepository;
+  private MemberRepository memberRepository;
+  private MemberSearchCondition memberSearchCondition;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    database = BenchmarkDatabase.start(rowCount);
+    entityManager = database.createEntityManager();
+    queryFactory = new JPAQueryFactory(entityManager);
+    memberJpaRepository = database.getBean(MemberJpaRepository.class);
+    memberRepository = database.getBean(MemberRepository.class);
+
+    memberSearchCondition = new MemberSearchCondition();
+    memberSearchCondition.setTeamName("team1");
+    memberSearchCondition.setAgeGoe(20);
+    memberSearchCondition.setAgeLoe(21);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    entityManager.close();
+    database.close();
+  }
+
+  @Benchmark
+  public List<MemberTeamDto> queryProjection() {
+    return fetch(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name));
+  }
+
+  @Benchmark
+  public List<MemberTeamDto> beanProjection() {
+    return fetch(bean(MemberTeamDto.class,
+        member.id.as("memberId"), member.username, member.age,
+        team.id.as("teamId"), team.name.as("teamName")));
+  }
+
+  @Benchmark
+  public List<MemberTeamDto> fieldsProjection() {
+    return fetch(fields(MemberTeamDto.class,
+        member.id.as("memberId"), member.username, member.age,
+        team.id.as("teamId"), team.name.as("teamName")));
+  }
+
+  @Benchmark
+  public List<MemberTeamDto> constructorProjection() {
+    return fetch(constructor(MemberTeamDto.class,
+        member.id, member.username, member.age, team.id, team.name));
+  }
+
+  @Benchmark
+  public List<MemberTeamDto> searchByBuilder() {
+    return memberJpaRepository.searchByBuilder(memberSearchCondition);
+  }
+
+  @Benchmark
+  public List<MemberTeamDto> searchByWhere() {
+    return memberJpaRepository.searchByWhere(memberSearchCondition);
+  }
+
+  @Benchmark
+  public List<MemberTeamDto> searchByTemplate() {
+    return memberRepository.search(memberSearchCondition);
+  }
+
+  private List<MemberTeamDto> fetch(Expression<MemberTeamDto> projection) {
+    return queryFactory
+        .select(projection)
+        .from(member)
+        .leftJoin(member.team, team)
+        .where(member.age.goe(20), member.age.loe(60))
+        .limit(pageSize)
+        .fetch();
+  }
+
+}
@@ -0,0 +1,111 @@
+package com.example.querydsl.benchmark;
+
+import static com.example.querydsl.entity.QMember.member;
+import static com.example.querydsl.entity.QTeam.team;
+import static org.springframework.util.StringUtils.hasText;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.QMemberTeamDto;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * DB 없이 predicate 생성과 JPQL 직렬화 비용만 측정
+ * searchByBuilder(BooleanBuilder) vs searchByWhere(where 파라미터)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PredicateBenchmark {
+
+  private MemberSearchCondition memberSearchCondition;
+
+  @Setup
+  public void setUp() {
+    memberSearchCondition = new MemberSearchCondition();
+    memberSearchCondition.setUsername("member1");
+    memberSearchCondition.setTeamName("teamA");
+    memberSearchCondition.setAgeGoe(10);
+    memberSearchCondition.setAgeLoe(40);
+  }
+
+  @Benchmark
+  public Predicate booleanBuilder() {
+    return builder(memberSearchCondition);
+  }
+
+  @Benchmark
+  public Predicate[] whereParameters() {
+    return whereParams(memberSearchCondition);
+  }
+
+  @Benchmark
+  public String serializeBooleanBuilder() {
+    return query().where(builder(memberSearchCondition)).toString();
+  }
+
+  @Benchmark
+  public String serializeWhereParameters() {
+    return query().where(whereParams(memberSearchCondition)).toString();
+  }
+
+  private JPAQuery<?> query() {
+    return new JPAQuery<>()
+        .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+        .from(member)
+        .leftJoin(member.team, team);
+  }
+
+  private BooleanBuilder builder(MemberSearchCondition condition) {
+    BooleanBuilder booleanBuilder = new BooleanBuilder();
+    if (hasText(condition.getUsername())) {
+      booleanBuilder.and(member.username.eq(condition.getUsername()));
+    }
+    if (hasText(condition.getTeamName())) {
+      booleanBuilder.and(team.name.eq(condition.getTeamName()));
+    }
+    if (condition.getAgeLoe() != null) {
+      booleanBuilder.and(member.age.loe(condition.getAgeLoe()));
+    }
+    if (condition.getAgeGoe() != null) {
+      booleanBuilder.and(member.age.goe(condition.getAgeGoe()));
+    }
+    return booleanBuilder;
+  }
+
+  private Predicate[] whereParams(MemberSearchCondition condition) {
+    return new Predicate[]{
+        usernameEq(condition.getUsername()),
+        teamNameEq(condition.getTeamName()),
+        ageGoe(condition.getAgeGoe()),
+        ageLoe(condition.getAgeLoe())
+    };
+  }
+
+  private BooleanExpression usernameEq(String username) {
+    return hasText(username) ? member.username.eq(username) : null;
+  }
+
+  private BooleanExpression teamNameEq(String teamName) {
+    return hasText(teamName) ? team.name.eq(teamName) : null;
+  }
+
+  private BooleanExpression ageLoe(Integer age) {
+    return age != null ? member.age.loe(age) : null;
+  }
+
+  private BooleanExpression ageGoe(Integer age) {
+    return age != null ? member.age.goe(age) : null;
+  }
+
+}
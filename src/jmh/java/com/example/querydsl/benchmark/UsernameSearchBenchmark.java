@@ -0,0 +1,99 @@
+package com.example.querydsl.benchmark;
+
+import static com.example.querydsl.entity.QMember.member;
+import static com.example.querydsl.entity.QTeam.team;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.dto.QMemberTeamDto;
+import com.example.querydsl.repository.MemberRepository;
+import com.example.querydsl.repository.MemberUsernameIndex;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * username 부분 일치 검색: LIKE '%x%' 테이블 스캔 vs n-gram 인덱스 후보 + PK 조회
+ * - likeScan: 기준선, 행 수에 비례
+ * - indexedContains: MemberSearchTemplates 경로 (인덱스 조회 + DB 재확인)
+ * - indexLookup: 인덱스 후보 계산만
+ * - prefix: idx_member_username을 타는 LIKE 'x%'
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UsernameSearchBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  public int rowCount;
+
+  private BenchmarkDatabase database;
+  private EntityManager entityManager;
+  private JPAQueryFactory queryFactory;
+  private MemberRepository memberRepository;
+  private MemberUsernameIndex memberUsernameIndex;
+  private String fragment;
+  private MemberSearchCondition containsCondition;
+  private MemberSearchCondition prefixCondition;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    database = BenchmarkDatabase.start(rowCount);
+    entityManager = database.createEntityManager();
+    queryFactory = new JPAQueryFactory(entityManager);
+    memberRepository = database.getBean(MemberRepository.class);
+    memberUsernameIndex = database.getBean(MemberUsernameIndex.class);
+
+    // "member" + i 중 몇 건만 걸리는 조각
+    fragment = "ber" + (rowCount / 2 + 1);
+
+    containsCondition = new MemberSearchCondition();
+    containsCondition.setUsernameContains(fragment);
+
+    prefixCondition = new MemberSearchCondition();
+    prefixCondition.setUsernamePrefix("member" + (rowCount / 2 + 1));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    entityManager.close();
+    database.close();
+  }
+
+  @Benchmark
+  public List<MemberTeamDto> likeScan() {
+    return queryFactory
+        .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+        .from(member)
+        .leftJoin(member.team, team)
+        .where(member.username.contains(fragment))
+        .fetch();
+  }
+
+  @Benchmark
+  public List<MemberTeamDto> indexedContains() {
+    return memberRepository.search(containsCondition);
+  }
+
+  @Benchmark
+  public List<Long> indexLookup() {
+    return memberUsernameIndex.candidates(fragment);
+  }
+
+  @Benchmark
+  public List<MemberTeamDto> prefix() {
+    return memberRepository.search(prefixCondition);
+  }
+
+}
@@ -0,0 +1,79 @@
+package com.example.querydsl.loadtest;
+
+import com.example.querydsl.loadtest.OpenLoopDriver.PhaseResult;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import org.HdrHistogram.Histogram;
+
+/**
+ * 측정 결과 출력
+ * - {endpoint}.hgrm: HdrHistogram 백분위 분포 (ms, HdrHistogram plotter로 그래프 가능)
+ * - summary.csv / 표준 출력: 엔드포인트 · shape별 처리량과 p50/p90/p99/p99.9/max
+ * requests, 처리량, 지연시간은 성공한 요청만이고 실패는 errors 열에 따로 나온다.
+ */
+final class LatencyReport {
+
+  private static final double MICROS_PER_MILLI = 1000.0;
+  private static final String HEADER = "endpoint,shape,requests,errors,throughput,p50,p90,p99,p99.9,max";
+
+  private LatencyReport() {
+  }
+
+  static void write(Path output, List<PhaseResult> results) throws IOException {
+    Files.createDirectories(output);
+    for (PhaseResult result : results) {
+      try (PrintStream out = new PrintStream(Files.newOutputStream(output.resolve(result.endpoint() + ".hgrm")))) {
+        result.total().outputPercentileDistribution(out, MICROS_PER_MILLI);
+      }
+    }
+
+    try (PrintStream csv = new PrintStream(Files.newOutputStream(output.resolve("summary.csv")))) {
+      csv.println(HEADER);
+      System.out.printf("%-6s %-28s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+          "", "shape", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+      for (PhaseResult result : results) {
+        line(csv, result.endpoint(), "all", result.total(), result.errors(), result.throughput());
+        Map<String, Histogram> byShape = new TreeMap<>(result.byShape());
+        byShape.forEach((shape, histogram) -> line(csv, result.endpoint(), shape, histogram, -1, -1));
+      }
+    }
+    System.out.println("reports written to " + output.toAbsolutePath());
+  }
+
+  static double p99Millis(PhaseResult result) {
+    return result.total().getValueAtPercentile(99.0) / MICROS_PER_MILLI;
+  }
+
+  private static void line(
+      PrintStream csv,
+      String endpoint,
+      String shape,
+      Histogram histogram,
+      long errors,
+      double throughput
+  ) {
+    double p50 = histogram.getValueAtPercentile(50.0) / MICROS_PER_MILLI;
+    double p90 = histogram.getValueAtPercentile(90.0) / MICROS_PER_MILLI;
+    double p99 = histogram.getValueAtPercentile(99.0) / MICROS_PER_MILLI;
+    double p999 = histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI;
+    double max = histogram.getMaxValue() / MICROS_PER_MILLI;
+
+    csv.println(String.format(Locale.ROOT, "%s,%s,%d,%s,%s,%.3f,%.3f,%.3f,%.3f,%.3f",
+        endpoint, shape, histogram.getTotalCount(),
+        errors >= 0 ? String.valueOf(errors) : "",
+        throughput >= 0 ? String.format(Locale.ROOT, "%.1f", throughput) : "",
+        p50, p90, p99, p999, max));
+    System.out.printf(Locale.ROOT, "%-6s %-28s %9d %7s %9s %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+        endpoint, shape, histogram.getTotalCount(),
+        errors >= 0 ? String.valueOf(errors) : "",
+        throughput >= 0 ? String.format(Locale.ROOT, "%.1f", throughput) : "",
+        p50, p90, p99, p999, max);
+  }
+
+}
@@ -0,0 +1,84 @@
+package com.example.querydsl.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * --key=value 형식의 부하 테스트 옵션
+ * --app.* 옵션은 앞의 app.을 뗀 채로 애플리케이션에 그대로 넘긴다. (예: --app.querydsl.page-cache.enabled=false)
+ */
+record LoadTestOptions(
+    List<String> endpoints,
+    double rate,
+    Duration warmup,
+    Duration duration,
+    Duration timeout,
+    long members,
+    int teams,
+    Map<String, Integer> mix,
+    List<Integer> pages,
+    int pageSize,
+    long seed,
+    Double maxP99Millis,
+    Double maxErrorRate,
+    Path output,
+    List<String> applicationArgs
+) {
+
+  private static final String DEFAULT_MIX = "none:20,username:10,usernamePrefix:10,usernameContains:10,"
+      + "teamName:20,teamName+ageGoe+ageLoe:20,ageGoe+ageLoe:10";
+
+  static LoadTestOptions parse(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    List<String> applicationArgs = new ArrayList<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Expected --key=value but was: " + arg);
+      }
+      String key = arg.substring(2, arg.indexOf('='));
+      String value = arg.substring(arg.indexOf('=') + 1);
+      if (key.startsWith("app.")) {
+        applicationArgs.add("--" + key.substring("app.".length()) + "=" + value);
+      } else {
+        options.put(key, value);
+      }
+    }
+
+    return new LoadTestOptions(
+        List.of(options.getOrDefault("endpoints", "v1,v2,v3").split(",")),
+        Double.parseDouble(options.getOrDefault("rate", "50")),
+        Duration.parse(options.getOrDefault("warmup", "PT10S")),
+        Duration.parse(options.getOrDefault("duration", "PT30S")),
+        Duration.parse(options.getOrDefault("timeout", "PT10S")),
+        Long.parseLong(options.getOrDefault("members", "100000")),
+        Integer.parseInt(options.getOrDefault("teams", "100")),
+        parseMix(options.getOrDefault("mix", DEFAULT_MIX)),
+        Arrays.stream(options.getOrDefault("pages", "0,1,10,100").split(","))
+            .map(Integer::valueOf)
+            .toList(),
+        Integer.parseInt(options.getOrDefault("page-size", "20")),
+        Long.parseLong(options.getOrDefault("seed", "42")),
+        options.containsKey("max-p99") ? Double.valueOf(options.get("max-p99")) : null,
+        options.containsKey("max-error-rate") ? Double.valueOf(options.get("max-error-rate")) : null,
+        Path.of(options.getOrDefault("output", "build/loadtest")),
+        List.copyOf(applicationArgs)
+    );
+  }
+
+  // shape:weight,... (shape는 MemberSearchCondition.predicateShapeName()과 같은 표기)
+  private static Map<String, Integer> parseMix(String mix) {
+    Map<String, Integer> weights = new LinkedHashMap<>();
+    for (String entry : mix.split(",")) {
+      String[] shapeAndWeight = entry.split(":");
+      weights.put(shapeAndWeight[0], shapeAndWeight.length > 1 ? Integer.parseInt(shapeAndWeight[1]) : 1);
+    }
+    return weights;
+  }
+
+}
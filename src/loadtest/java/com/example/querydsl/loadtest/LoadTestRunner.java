@@ -0,0 +1,78 @@
+package com.example.querydsl.loadtest;
+
+import com.example.querydsl.QuerydslApplication;
+import com.example.querydsl.loadtest.OpenLoopDriver.PhaseResult;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 시드된 인메모리 H2로 애플리케이션을 띄우고 /v1, /v2, /v3 members에 고정 도착률 부하를 건다.
+ * 엔드포인트마다 warmup 후 duration 동안 측정하고, HdrHistogram 리포트를 output 디렉터리에 쓴다.
+ * --max-p99(ms)를 주면 p99가 이를 넘는 엔드포인트가 있을 때 종료 코드 1로 실패한다.
+ * 실패한 요청은 p99에 들어가지 않으므로 이 검사에서는 오류율이 --max-error-rate(0~1, 기본 0)를 넘어도 실패한다.
+ * (--max-error-rate만 주면 오류율만 확인)
+ *
+ * ./gradlew loadTest -PloadTestArgs="--endpoints=v2,v3 --rate=200 --members=1000000 --max-p99=50 --max-error-rate=0.001"
+ */
+public final class LoadTestRunner {
+
+  private LoadTestRunner() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    LoadTestOptions options = LoadTestOptions.parse(args);
+    RequestMix requestMix = new RequestMix(options);
+    List<PhaseResult> results = new ArrayList<>();
+
+    try (ConfigurableApplicationContext context = start(options)) {
+      int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+      OpenLoopDriver driver = new OpenLoopDriver(URI.create("http://localhost:" + port), options.timeout());
+
+      for (String endpoint : options.endpoints()) {
+        System.out.printf("%s: warmup %s, measure %s at %.0f req/s%n",
+            endpoint, options.warmup(), options.duration(), options.rate());
+        driver.run(endpoint, requestMix, options.rate(), options.warmup(), options.seed());
+        results.add(driver.run(endpoint, requestMix, options.rate(), options.duration(), options.seed() + 1));
+      }
+    }
+
+    LatencyReport.write(options.output(), results);
+
+    if (options.maxP99Millis() != null || options.maxErrorRate() != null) {
+      double maxErrorRate = options.maxErrorRate() != null ? options.maxErrorRate() : 0;
+      List<String> regressions = new ArrayList<>();
+      for (PhaseResult result : results) {
+        if (result.errorRate() > maxErrorRate) {
+          regressions.add(String.format("%s error rate %.3f%% (%d errors) above %.3f%%",
+              result.endpoint(), result.errorRate() * 100, result.errors(), maxErrorRate * 100));
+        }
+        if (options.maxP99Millis() != null && LatencyReport.p99Millis(result) > options.maxP99Millis()) {
+          regressions.add(String.format("%s p99 %.2f ms above %s ms",
+              result.endpoint(), LatencyReport.p99Millis(result), options.maxP99Millis()));
+        }
+      }
+      if (!regressions.isEmpty()) {
+        System.err.println("load test gate failed: " + regressions);
+        System.exit(1);
+      }
+    }
+  }
+
+  private static ConfigurableApplicationContext start(LoadTestOptions options) {
+    List<String> args = new ArrayList<>(List.of(
+        "--spring.profiles.active=seed",
+        "--server.port=0",
+        "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+        "--querydsl.seed.members=" + options.members(),
+        "--querydsl.seed.teams=" + options.teams()
+    ));
+    args.addAll(options.applicationArgs());
+    return new SpringApplicationBuilder(QuerydslApplication.class)
+        .run(args.toArray(String[]::new));
+  }
+
+}
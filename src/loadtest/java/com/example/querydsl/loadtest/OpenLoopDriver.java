@@ -0,0 +1,143 @@
+package com.example.querydsl.loadtest;
+
+import com.example.querydsl.loadtest.RequestMix.Request;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * 고정 도착률(open loop) 부하 발생기
+ * 응답을 기다리지 않고 정해진 간격마다 요청을 보내고, 지연시간은 "보냈어야 할 시각"부터 잰다.
+ * 서버가 밀려서 요청이 늦게 나가도 그 대기 시간이 지연시간에 포함되므로 coordinated omission이 생기지 않는다.
+ */
+final class OpenLoopDriver {
+
+  private final HttpClient httpClient;
+  private final URI baseUri;
+  private final Duration timeout;
+
+  OpenLoopDriver(URI baseUri, Duration timeout) {
+    this.httpClient = HttpClient.newBuilder()
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .connectTimeout(timeout)
+        .build();
+    this.baseUri = baseUri;
+    this.timeout = timeout;
+  }
+
+  PhaseResult run(String endpoint, RequestMix requestMix, double rate, Duration duration, long seed) {
+    SplittableRandom random = new SplittableRandom(seed);
+    PhaseResult result = new PhaseResult(endpoint);
+    long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+    long start = System.nanoTime();
+    long end = start + duration.toNanos();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (long intended = start; intended < end; intended += interval) {
+        parkUntil(intended);
+        Request request = requestMix.next(endpoint, random);
+        long intendedStart = intended;
+        executor.execute(() -> send(request, intendedStart, result));
+      }
+    }
+    result.finish(System.nanoTime() - start);
+    return result;
+  }
+
+  private void send(Request request, long intendedStart, PhaseResult result) {
+    boolean ok;
+    try {
+      HttpResponse<Void> response = httpClient.send(
+          HttpRequest.newBuilder(baseUri.resolve(request.path())).timeout(timeout).GET().build(),
+          HttpResponse.BodyHandlers.discarding()
+      );
+      ok = response.statusCode() < 400;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      ok = false;
+    } catch (Exception e) {
+      ok = false;
+    }
+    result.record(request.shape(), TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart), ok);
+  }
+
+  private static void parkUntil(long deadline) {
+    long remaining;
+    while ((remaining = deadline - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(remaining);
+    }
+  }
+
+  /**
+   * 한 엔드포인트 측정 결과 (지연시간 단위: 마이크로초)
+   * 지연시간 분포는 성공한 요청만 기록한다. 빨리 실패한 요청(예: 429, 503)이 분포를 낮춰 보이게 하지 않도록
+   * 실패는 errors로만 센다.
+   */
+  static final class PhaseResult {
+
+    private final String endpoint;
+    private final Histogram total = new ConcurrentHistogram(3);
+    private final Map<String, Histogram> byShape = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+    private long elapsedNanos;
+
+    PhaseResult(String endpoint) {
+      this.endpoint = endpoint;
+    }
+
+    void record(String shape, long latencyMicros, boolean ok) {
+      if (!ok) {
+        errors.increment();
+        return;
+      }
+      total.recordValue(latencyMicros);
+      byShape.computeIfAbsent(shape, key -> new ConcurrentHistogram(3)).recordValue(latencyMicros);
+    }
+
+    void finish(long elapsedNanos) {
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    String endpoint() {
+      return endpoint;
+    }
+
+    Histogram total() {
+      return total;
+    }
+
+    Map<String, Histogram> byShape() {
+      return byShape;
+    }
+
+    long errors() {
+      return errors.sum();
+    }
+
+    // 보낸 요청 중 실패 비율 (0 ~ 1)
+    double errorRate() {
+      long errors = errors();
+      long requests = total.getTotalCount() + errors;
+      return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    // 성공한 요청 기준 처리량
+    double throughput() {
+      return total.getTotalCount() / (elapsedNanos / 1e9);
+    }
+
+  }
+
+}
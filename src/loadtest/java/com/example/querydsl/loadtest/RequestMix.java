@@ -0,0 +1,79 @@
+package com.example.querydsl.loadtest;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.StringJoiner;
+
+/**
+ * 가중치에 따라 검색 조건 shape를 고르고, SeedMember가 만든 데이터에 맞는 값으로 요청 경로를 만든다.
+ * (username: member{i}, team: team{i % teams}, age: i % 100)
+ */
+final class RequestMix {
+
+  private final Map<String, Integer> weights;
+  private final int totalWeight;
+  private final long members;
+  private final int teams;
+  private final List<Integer> pages;
+  private final int pageSize;
+
+  RequestMix(LoadTestOptions options) {
+    this.weights = options.mix();
+    this.totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+    this.members = options.members();
+    this.teams = options.teams();
+    this.pages = options.pages();
+    this.pageSize = options.pageSize();
+  }
+
+  Request next(String endpoint, SplittableRandom random) {
+    String shape = pickShape(random);
+    StringJoiner query = new StringJoiner("&");
+
+    int ageGoe = random.nextInt(0, 80);
+    for (String filter : shape.split("\\+")) {
+      switch (filter) {
+        case "none" -> {
+        }
+        case "username" -> add(query, "username", "member" + random.nextLong(members));
+        case "usernamePrefix" -> add(query, "usernamePrefix", "member" + random.nextInt(1, 1000));
+        case "usernameContains" -> add(query, "usernameContains", String.valueOf(random.nextInt(1000, 10000)));
+        case "teamName" -> add(query, "teamName", "team" + random.nextInt(teams));
+        case "ageGoe" -> add(query, "ageGoe", String.valueOf(ageGoe));
+        case "ageLoe" -> add(query, "ageLoe", String.valueOf(ageGoe + random.nextInt(1, 20)));
+        default -> throw new IllegalArgumentException("Unknown filter in mix: " + filter);
+      }
+    }
+
+    // /v1은 페이징 없이 전체 목록을 돌려준다.
+    if (!endpoint.equals("v1")) {
+      add(query, "page", String.valueOf(pages.get(random.nextInt(pages.size()))));
+      add(query, "size", String.valueOf(pageSize));
+    }
+
+    String path = "/" + endpoint + "/members" + (query.length() > 0 ? "?" + query : "");
+    return new Request(shape, path);
+  }
+
+  private String pickShape(SplittableRandom random) {
+    int pick = random.nextInt(totalWeight);
+    for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+      pick -= entry.getValue();
+      if (pick < 0) {
+        return entry.getKey();
+      }
+    }
+    throw new IllegalStateException("Empty request mix");
+  }
+
+  private static void add(StringJoiner query, String name, String value) {
+    query.add(name + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8));
+  }
+
+  record Request(String shape, String path) {
+  }
+
+}
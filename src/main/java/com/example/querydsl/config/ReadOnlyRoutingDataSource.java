@@ -0,0 +1,57 @@
+package com.example.querydsl.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * 읽기 전용 커넥션을 replica들에 라운드 로빈으로 분배한다.
+ * maxStaleness가 있으면 마지막 쓰기 커밋 후 그 시간 동안은 primary로 보내
+ * 복제 지연 때문에 방금 쓴 데이터가 안 보이는 일을 막는다.
+ */
+public class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+
+  private static final String PRIMARY = "primary";
+
+  private final int replicaCount;
+  private final long maxStalenessNanos;
+  private final AtomicInteger next = new AtomicInteger();
+  private final AtomicLong lastWriteCommittedAt = new AtomicLong(Long.MIN_VALUE);
+
+  public ReadOnlyRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration maxStaleness) {
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(PRIMARY, primary);
+    for (int i = 0; i < replicas.size(); i++) {
+      targets.put(i, replicas.get(i));
+    }
+    setTargetDataSources(targets);
+    setDefaultTargetDataSource(primary);
+    this.replicaCount = replicas.size();
+    this.maxStalenessNanos = maxStaleness != null ? maxStaleness.toNanos() : 0;
+  }
+
+  public void writeCommitted() {
+    lastWriteCommittedAt.set(System.nanoTime());
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (replicaCount == 0 || withinStalenessWindow()) {
+      return PRIMARY;
+    }
+    return Math.floorMod(next.getAndIncrement(), replicaCount);
+  }
+
+  private boolean withinStalenessWindow() {
+    long lastWrite = lastWriteCommittedAt.get();
+    return maxStalenessNanos > 0
+        && lastWrite != Long.MIN_VALUE
+        && System.nanoTime() - lastWrite < maxStalenessNanos;
+  }
+
+}
@@ -0,0 +1,26 @@
+package com.example.querydsl.config;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 읽기 전용 replica 설정
+ *
+ * @param enabled      replica 라우팅 사용 여부
+ * @param urls         replica JDBC URL 목록 (라운드 로빈)
+ * @param username     replica 계정 (없으면 primary와 동일)
+ * @param password     replica 비밀번호 (없으면 primary와 동일)
+ * @param maxStaleness 복제 지연 허용치. 쓰기 커밋 후 이 시간 동안은 읽기도 primary로 보낸다. (없으면 사용 안 함)
+ * @param syncFromPrimary 시작 시 replica를 primary 스냅샷으로 다시 만든다. (복제가 없는 로컬 H2용)
+ */
+@ConfigurationProperties("querydsl.replica")
+public record ReplicaProperties(
+    boolean enabled,
+    List<String> urls,
+    String username,
+    String password,
+    Duration maxStaleness,
+    boolean syncFromPrimary
+) {
+}
@@ -0,0 +1,115 @@
+package com.example.querydsl.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+/**
+ * 읽기/쓰기 분리
+ * - @Transactional(readOnly = true)면 트랜잭션 매니저가 커넥션을 read-only로 표시하고,
+ *   LazyConnectionDataSourceProxy가 실제 커넥션을 얻을 때 replica 쪽 DataSource를 사용한다.
+ * - 그 외(쓰기, 트랜잭션 없음)는 모두 primary
+ * - querydsl.replica.sync-from-primary=true면 시작 시 replica를 primary 스냅샷으로 만든다. (로컬 H2용)
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(name = "querydsl.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+  @Bean
+  @Primary
+  DataSource dataSource(
+      ReadOnlyRoutingDataSource readOnlyRoutingDataSource,
+      HikariDataSource primaryDataSource
+  ) {
+    LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+    dataSource.setReadOnlyDataSource(readOnlyRoutingDataSource);
+    return dataSource;
+  }
+
+  @Bean
+  HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+    HikariDataSource dataSource = dataSourceProperties
+        .initializeDataSourceBuilder()
+        .type(HikariDataSource.class)
+        .build();
+    dataSource.setPoolName("primary");
+    return dataSource;
+  }
+
+  @Bean
+  ReadOnlyRoutingDataSource readOnlyRoutingDataSource(
+      DataSourceProperties dataSourceProperties,
+      ReplicaProperties replicaProperties,
+      HikariDataSource primaryDataSource
+  ) {
+    List<String> urls = replicaProperties.urls() != null ? replicaProperties.urls() : List.of();
+    List<DataSource> replicas = new ArrayList<>();
+    for (int i = 0; i < urls.size(); i++) {
+      HikariDataSource replica = new HikariDataSource();
+      replica.setPoolName("replica-" + i);
+      replica.setJdbcUrl(urls.get(i));
+      replica.setUsername(username(dataSourceProperties, replicaProperties));
+      replica.setPassword(password(dataSourceProperties, replicaProperties));
+      replica.setReadOnly(true);
+      replicas.add(replica);
+    }
+    return new ReadOnlyRoutingDataSource(primaryDataSource, replicas, replicaProperties.maxStaleness());
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "querydsl.replica.sync-from-primary", havingValue = "true")
+  ReplicaSynchronizer replicaSynchronizer(
+      DataSourceProperties dataSourceProperties,
+      ReplicaProperties replicaProperties,
+      HikariDataSource primaryDataSource
+  ) {
+    List<DataSource> replicaWriters = new ArrayList<>();
+    for (String url : replicaProperties.urls() != null ? replicaProperties.urls() : List.<String>of()) {
+      replicaWriters.add(new DriverManagerDataSource(
+          url,
+          username(dataSourceProperties, replicaProperties),
+          password(dataSourceProperties, replicaProperties)
+      ));
+    }
+    return new ReplicaSynchronizer(primaryDataSource, replicaWriters);
+  }
+
+  // 자동 구성된 트랜잭션 매니저에 등록되어 쓰기 커밋 시각을 기록
+  @Bean
+  TransactionExecutionListener replicaStalenessListener(ReadOnlyRoutingDataSource readOnlyRoutingDataSource) {
+    return new TransactionExecutionListener() {
+      @Override
+      public void afterCommit(TransactionExecution transaction, @Nullable Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly()) {
+          readOnlyRoutingDataSource.writeCommitted();
+        }
+      }
+    };
+  }
+
+  private static String username(DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties) {
+    return replicaProperties.username() != null
+        ? replicaProperties.username()
+        : dataSourceProperties.determineUsername();
+  }
+
+  private static String password(DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties) {
+    return replicaProperties.password() != null
+        ? replicaProperties.password()
+        : dataSourceProperties.determinePassword();
+  }
+
+}
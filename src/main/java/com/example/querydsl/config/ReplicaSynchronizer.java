@@ -0,0 +1,46 @@
+package com.example.querydsl.config;
+
+import java.util.List;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 복제가 없는 로컬 H2 replica를 primary의 스냅샷으로 맞춘다.
+ * - 시작이 끝나면(스키마 생성, InitMember 이후) primary를 H2 SCRIPT로 덤프해서 replica마다 다시 만든다.
+ * - 이후의 쓰기는 복제되지 않으므로 다시 맞추려면 {@link #sync()}를 호출한다.
+ * replica 풀은 read-only 커넥션이므로 쓰기는 별도 DataSource(replicaWriters)로 한다.
+ */
+@Slf4j
+public class ReplicaSynchronizer implements ApplicationListener<ApplicationReadyEvent> {
+
+  private final DataSource primary;
+  private final List<DataSource> replicaWriters;
+
+  public ReplicaSynchronizer(DataSource primary, List<DataSource> replicaWriters) {
+    this.primary = primary;
+    this.replicaWriters = replicaWriters;
+  }
+
+  @Override
+  public void onApplicationEvent(ApplicationReadyEvent event) {
+    sync();
+  }
+
+  public synchronized void sync() {
+    List<String> script = new JdbcTemplate(primary)
+        .queryForList("script nopasswords nosettings", String.class)
+        .stream()
+        .filter(statement -> !statement.startsWith("--"))
+        .toList();
+    for (DataSource replicaWriter : replicaWriters) {
+      JdbcTemplate replica = new JdbcTemplate(replicaWriter);
+      replica.execute("drop all objects");
+      script.forEach(replica::execute);
+    }
+    log.info("synchronized {} replica(s) from primary ({} statements)", replicaWriters.size(), script.size());
+  }
+
+}
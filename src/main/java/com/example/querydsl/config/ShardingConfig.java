@@ -0,0 +1,57 @@
+package com.example.querydsl.config;
+
+import com.example.querydsl.repository.ShardedMemberRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.util.Assert;
+
+/**
+ * Member를 team_id 기준으로 여러 DB에 나눠 저장
+ * - shard마다 별도 커넥션 풀을 만들고 시작 시 db/shard-schema.sql로 스키마를 만든다.
+ * - shard는 JPA가 아닌 JDBC로 접근하므로 쓰기도 ShardedMemberRepository를 통해야 한다.
+ *   Member/Team의 JPA 쓰기와 ChunkedBulkOperations는 ShardedWriteGuard가 거부한다.
+ * - member 검색/페이지/slice/id·username 조회, NDJSON 내보내기, 컬럼형 검색, 팀 통계 reconcile은 shard를 읽는다.
+ *   Member 엔티티를 돌려주는 조회(findById, findByUsername 등)는 primary DB만 보므로 sharding과 함께 쓰지 않는다.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(name = "querydsl.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+  @Bean
+  ShardedMemberRepository shardedMemberRepository(
+      DataSourceProperties dataSourceProperties,
+      ShardingProperties shardingProperties
+  ) {
+    List<String> urls = shardingProperties.urls() != null ? shardingProperties.urls() : List.of();
+    Assert.notEmpty(urls, "querydsl.sharding.urls must not be empty");
+
+    ResourceDatabasePopulator schema = new ResourceDatabasePopulator(new ClassPathResource("db/shard-schema.sql"));
+    List<DataSource> shards = new ArrayList<>();
+    for (int i = 0; i < urls.size(); i++) {
+      HikariDataSource shard = new HikariDataSource();
+      shard.setPoolName("shard-" + i);
+      shard.setJdbcUrl(urls.get(i));
+      shard.setUsername(shardingProperties.username() != null
+          ? shardingProperties.username()
+          : dataSourceProperties.determineUsername());
+      shard.setPassword(shardingProperties.password() != null
+          ? shardingProperties.password()
+          : dataSourceProperties.determinePassword());
+      DatabasePopulatorUtils.execute(schema, shard);
+      shards.add(shard);
+    }
+    return new ShardedMemberRepository(shards);
+  }
+
+}
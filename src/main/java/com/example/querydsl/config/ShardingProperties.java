@@ -0,0 +1,21 @@
+package com.example.querydsl.config;
+
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Member shard 설정
+ *
+ * @param enabled  shard 사용 여부 (member 검색/조회를 shard scatter-gather로 처리하고 JPA 쓰기는 거부)
+ * @param urls     shard JDBC URL 목록. 순서가 곧 shard 번호이므로 운영 중에 바꾸면 안 된다.
+ * @param username shard 계정 (없으면 primary와 동일)
+ * @param password shard 비밀번호 (없으면 primary와 동일)
+ */
+@ConfigurationProperties("querydsl.sharding")
+public record ShardingProperties(
+    boolean enabled,
+    List<String> urls,
+    String username,
+    String password
+) {
+}
@@ -0,0 +1,68 @@
+package com.example.querydsl.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(
+    name = "spring.jpa.properties.hibernate.cache.use_second_level_cache",
+    havingValue = "true"
+)
+public class CacheStatisticsController {
+
+  private final EntityManagerFactory entityManagerFactory;
+
+  @GetMapping("/stats/cache")
+  public CacheStatistics cacheStatistics() {
+    Statistics statistics = entityManagerFactory
+        .unwrap(SessionFactory.class)
+        .getStatistics();
+
+    Map<String, RegionStatistics> regions = Arrays
+        .stream(statistics.getSecondLevelCacheRegionNames())
+        .collect(Collectors.toMap(
+            Function.identity(),
+            name -> RegionStatistics.of(statistics.getDomainDataRegionStatistics(name))
+        ));
+
+    return new CacheStatistics(
+        regions,
+        statistics.getQueryCacheHitCount(),
+        statistics.getQueryCacheMissCount(),
+        statistics.getQueryCachePutCount()
+    );
+  }
+
+  public record CacheStatistics(
+      Map<String, RegionStatistics> regions,
+      long queryCacheHits,
+      long queryCacheMisses,
+      long queryCachePuts
+  ) {
+  }
+
+  public record RegionStatistics(long hits, long misses, long puts, long elementsInMemory) {
+
+    static RegionStatistics of(CacheRegionStatistics statistics) {
+      return new RegionStatistics(
+          statistics.getHitCount(),
+          statistics.getMissCount(),
+          statistics.getPutCount(),
+          statistics.getElementCountInMemory()
+      );
+    }
+
+  }
+
+}
@@ -1,15 +1,28 @@
 package com.example.querydsl.controller;
 
 import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamColumns;
 import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.repository.MemberColumnarRepository;
 import com.example.querydsl.repository.MemberJpaRepository;
 import com.example.querydsl.repository.MemberRepository;
+import com.example.querydsl.repository.support.CountStrategy;
+import com.example.querydsl.service.MemberExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequiredArgsConstructor
@@ -17,12 +30,34 @@ public class MemberController {
 
   private final MemberJpaRepository memberJpaRepository;
   private final MemberRepository memberRepository;
+  private final MemberColumnarRepository memberColumnarRepository;
+  private final MemberExportService memberExportService;
+
+  @Value("${querydsl.slice.max-size:1000}")
+  private int maxSliceSize;
 
   @GetMapping("/v1/members")
   public List<MemberTeamDto> searchMemberV1(MemberSearchCondition memberSearchCondition) {
     return memberJpaRepository.searchByWhere(memberSearchCondition);
   }
 
+  @GetMapping(value = "/v1/members/export", produces = "application/x-ndjson")
+  public void exportMemberV1(
+      MemberSearchCondition memberSearchCondition,
+      HttpServletResponse response
+  ) throws IOException {
+    response.setContentType("application/x-ndjson");
+    response.setCharacterEncoding("UTF-8");
+    try (OutputStream outputStream = new BufferedOutputStream(response.getOutputStream())) {
+      memberExportService.exportNdjson(memberSearchCondition, outputStream);
+    }
+  }
+
+  @GetMapping("/v1/members/columns")
+  public MemberTeamColumns searchMemberColumnsV1(MemberSearchCondition memberSearchCondition) {
+    return memberColumnarRepository.searchColumns(memberSearchCondition);
+  }
+
   @GetMapping("/v2/members")
   public Page<MemberTeamDto> searchMemberV2(
       MemberSearchCondition memberSearchCondition,
@@ -36,10 +71,28 @@ public class MemberController {
   @GetMapping("/v3/members")
   public Page<MemberTeamDto> searchMemberV3(
       MemberSearchCondition memberSearchCondition,
-      Pageable pageable
+      Pageable pageable,
+      @RequestParam(defaultValue = "EXACT") CountStrategy countStrategy
   ) {
     return memberRepository.searchPageComplex(
-        memberSearchCondition, pageable
+        memberSearchCondition, pageable, countStrategy
+    );
+  }
+
+  @GetMapping("/v4/members")
+  public Slice<MemberTeamDto> searchMemberV4(
+      MemberSearchCondition memberSearchCondition,
+      @RequestParam(required = false) Long lastMemberId,
+      @RequestParam(defaultValue = "20") int size
+  ) {
+    if (size < 1 || size > maxSliceSize) {
+      throw new ResponseStatusException(
+          HttpStatus.BAD_REQUEST,
+          "size must be between 1 and " + maxSliceSize
+      );
+    }
+    return memberRepository.searchSlice(
+        memberSearchCondition, lastMemberId, size
     );
   }
 
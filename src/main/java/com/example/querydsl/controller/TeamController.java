@@ -0,0 +1,28 @@
+package com.example.querydsl.controller;
+
+import com.example.querydsl.dto.TeamStatsDto;
+import com.example.querydsl.repository.TeamStatsRepository;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+  private final TeamStatsRepository teamStatsRepository;
+
+  @GetMapping("/v1/teams/stats")
+  public List<TeamStatsDto> teamStats() {
+    return teamStatsRepository.findAll();
+  }
+
+  @GetMapping("/v1/teams/{teamId}/stats")
+  public ResponseEntity<TeamStatsDto> teamStats(@PathVariable Long teamId) {
+    return ResponseEntity.of(teamStatsRepository.findByTeamId(teamId));
+  }
+
+}
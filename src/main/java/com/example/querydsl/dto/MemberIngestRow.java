@@ -0,0 +1,7 @@
+package com.example.querydsl.dto;
+
+/**
+ * 대량 적재용 입력 한 건
+ */
+public record MemberIngestRow(String username, int age, String teamName) {
+}
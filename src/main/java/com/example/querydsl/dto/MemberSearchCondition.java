@@ -1,13 +1,95 @@
 package com.example.querydsl.dto;
 
+import static org.springframework.util.StringUtils.hasText;
+
+import java.util.StringJoiner;
 import lombok.Data;
 
 @Data
 public class MemberSearchCondition {
 
+  public static final int USERNAME = 1;
+  public static final int TEAM_NAME = 1 << 1;
+  public static final int AGE_GOE = 1 << 2;
+  public static final int AGE_LOE = 1 << 3;
+  public static final int USERNAME_PREFIX = 1 << 4;
+  public static final int USERNAME_CONTAINS = 1 << 5;
+
   private String username;
+  private String usernamePrefix;
+  private String usernameContains;
   private String teamName;
   private Integer ageGoe;
   private Integer ageLoe;
 
+  /*
+   * 캐시 키 등으로 쓰기 위한 정규화된 복사본
+   * 빈 문자열은 검색 조건에서 무시되므로 null과 같은 조건으로 취급
+   * */
+  public MemberSearchCondition normalized() {
+    MemberSearchCondition normalized = new MemberSearchCondition();
+    normalized.setUsername(hasText(username) ? username : null);
+    normalized.setUsernamePrefix(hasText(usernamePrefix) ? usernamePrefix : null);
+    normalized.setUsernameContains(hasText(usernameContains) ? usernameContains : null);
+    normalized.setTeamName(hasText(teamName) ? teamName : null);
+    normalized.setAgeGoe(ageGoe);
+    normalized.setAgeLoe(ageLoe);
+    return normalized;
+  }
+
+  /*
+   * 어떤 검색 조건이 채워져 있는지를 나타내는 비트마스크
+   * username(1), teamName(2), ageGoe(4), ageLoe(8), usernamePrefix(16), usernameContains(32)
+   * */
+  public int predicateShape() {
+    int shape = 0;
+    if (hasText(username)) {
+      shape |= USERNAME;
+    }
+    if (hasText(teamName)) {
+      shape |= TEAM_NAME;
+    }
+    if (ageGoe != null) {
+      shape |= AGE_GOE;
+    }
+    if (ageLoe != null) {
+      shape |= AGE_LOE;
+    }
+    if (hasText(usernamePrefix)) {
+      shape |= USERNAME_PREFIX;
+    }
+    if (hasText(usernameContains)) {
+      shape |= USERNAME_CONTAINS;
+    }
+    return shape;
+  }
+
+  // 메트릭 태그 등에 쓰는 사람이 읽을 수 있는 shape 이름 (예: "teamName+ageGoe")
+  public String predicateShapeName() {
+    int shape = predicateShape();
+    if (shape == 0) {
+      return "none";
+    }
+    StringJoiner name = new StringJoiner("+");
+    if ((shape & USERNAME) != 0) {
+      name.add("username");
+    }
+    if ((shape & TEAM_NAME) != 0) {
+      name.add("teamName");
+    }
+    if ((shape & AGE_GOE) != 0) {
+      name.add("ageGoe");
+    }
+    if ((shape & AGE_LOE) != 0) {
+      name.add("ageLoe");
+    }
+    if ((shape & USERNAME_PREFIX) != 0) {
+      name.add("usernamePrefix");
+    }
+    if ((shape & USERNAME_CONTAINS) != 0) {
+      name.add("usernameContains");
+    }
+    return name.toString();
+  }
+
 }
@@ -0,0 +1,119 @@
+package com.example.querydsl.dto;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * MemberTeamDto 목록을 열(column) 단위 배열로 담는 결과 컨테이너
+ * - id/나이는 boxing 없이 long[]/int[]
+ * - 팀은 몇 개 안 되므로 사전(dictionary)에 한 번만 두고 행에는 사전 인덱스(teamCodes)만 저장
+ *   팀이 없는 행의 코드는 {@link #NO_TEAM}
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class MemberTeamColumns {
+
+  public static final int NO_TEAM = -1;
+
+  private final int size;
+  private final long[] memberIds;
+  private final String[] usernames;
+  private final int[] ages;
+  private final int[] teamCodes;
+  private final long[] teamIds;
+  private final String[] teamNames;
+
+  public Long teamId(int row) {
+    int code = teamCodes[row];
+    return code == NO_TEAM ? null : teamIds[code];
+  }
+
+  public String teamName(int row) {
+    int code = teamCodes[row];
+    return code == NO_TEAM ? null : teamNames[code];
+  }
+
+  public MemberTeamDto toDto(int row) {
+    return new MemberTeamDto(memberIds[row], usernames[row], ages[row], teamId(row), teamName(row));
+  }
+
+  public void forEachRow(Consumer<MemberTeamDto> consumer) {
+    for (int row = 0; row < size; row++) {
+      consumer.accept(toDto(row));
+    }
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public static class Builder {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private int size;
+    private long[] memberIds = new long[INITIAL_CAPACITY];
+    private String[] usernames = new String[INITIAL_CAPACITY];
+    private int[] ages = new int[INITIAL_CAPACITY];
+    private int[] teamCodes = new int[INITIAL_CAPACITY];
+
+    private final Map<Long, Integer> teamCodeById = new HashMap<>();
+    private long[] teamIds = new long[16];
+    private String[] teamNames = new String[16];
+
+    private Builder() {
+    }
+
+    public Builder add(long memberId, String username, int age, Long teamId, String teamName) {
+      if (size == memberIds.length) {
+        int capacity = size * 2;
+        memberIds = Arrays.copyOf(memberIds, capacity);
+        usernames = Arrays.copyOf(usernames, capacity);
+        ages = Arrays.copyOf(ages, capacity);
+        teamCodes = Arrays.copyOf(teamCodes, capacity);
+      }
+      memberIds[size] = memberId;
+      usernames[size] = username;
+      ages[size] = age;
+      teamCodes[size] = teamId == null ? NO_TEAM : teamCode(teamId, teamName);
+      size++;
+      return this;
+    }
+
+    private int teamCode(Long teamId, String teamName) {
+      Integer code = teamCodeById.get(teamId);
+      if (code != null) {
+        return code;
+      }
+      int newCode = teamCodeById.size();
+      if (newCode == teamIds.length) {
+        teamIds = Arrays.copyOf(teamIds, newCode * 2);
+        teamNames = Arrays.copyOf(teamNames, newCode * 2);
+      }
+      teamIds[newCode] = teamId;
+      teamNames[newCode] = teamName;
+      teamCodeById.put(teamId, newCode);
+      return newCode;
+    }
+
+    public MemberTeamColumns build() {
+      int teams = teamCodeById.size();
+      return new MemberTeamColumns(
+          size,
+          Arrays.copyOf(memberIds, size),
+          Arrays.copyOf(usernames, size),
+          Arrays.copyOf(ages, size),
+          Arrays.copyOf(teamCodes, size),
+          Arrays.copyOf(teamIds, teams),
+          Arrays.copyOf(teamNames, teams)
+      );
+    }
+
+  }
+
+}
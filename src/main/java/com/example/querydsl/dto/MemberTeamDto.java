@@ -2,8 +2,10 @@ package com.example.querydsl.dto;
 
 import com.querydsl.core.annotations.QueryProjection;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 public class MemberTeamDto {
 
   private Long memberId;
@@ -21,4 +23,9 @@ public class MemberTeamDto {
     this.teamName = teamName;
   }
 
+  // 여러 호출자가 같이 받는 결과(SingleFlight, 페이지 캐시)를 호출자마다 따로 주기 위한 복사본
+  public MemberTeamDto copy() {
+    return new MemberTeamDto(memberId, username, age, teamId, teamName);
+  }
+
 }
@@ -0,0 +1,15 @@
+package com.example.querydsl.dto;
+
+/*
+ * 팀별 회원 수/평균/최소/최대 나이
+ * 회원이 없는 팀은 averageAge, minAge, maxAge가 null
+ * */
+public record TeamStatsDto(
+    Long teamId,
+    String teamName,
+    long memberCount,
+    Double averageAge,
+    Integer minAge,
+    Integer maxAge
+) {
+}
@@ -1,12 +1,21 @@
 package com.example.querydsl.entity;
 
+import com.example.querydsl.repository.MemberUsernameIndexListener;
+import com.example.querydsl.repository.ShardedWriteGuard;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -14,14 +23,23 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_member_username", columnList = "username"),
+    @Index(name = "idx_member_team_age", columnList = "team_id, age")
+})
+@EntityListeners({ShardedWriteGuard.class, MemberUsernameIndexListener.class})
+@NamedEntityGraph(name = Member.WITH_TEAM, attributeNodes = @NamedAttributeNode("team"))
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"})
 public class Member {
 
+  public static final String WITH_TEAM = "Member.withTeam";
+
   @Id
-  @GeneratedValue
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+  @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 100)
   @Column(name = "member_id")
   private Long id;
 
@@ -1,12 +1,17 @@
 package com.example.querydsl.init;
 
+import static com.example.querydsl.entity.QMember.member;
+import static com.example.querydsl.entity.QTeam.team;
+
 import com.example.querydsl.entity.Member;
 import com.example.querydsl.entity.Team;
+import com.example.querydsl.repository.support.ChunkedBulkOperations;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,6 +38,9 @@ public class InitMember {
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private ChunkedBulkOperations chunkedBulkOperations;
+
     @Transactional
     public void init() {
       Team foo = new Team("foo");
@@ -46,14 +54,10 @@ public class InitMember {
       }
     }
 
+    // chunk 단위로 커밋하면서 삭제 (회원 -> 팀 순서)
     public void cleanUp() {
-      entityManager
-          .createQuery("delete from Member")
-          .executeUpdate();
-
-      entityManager
-          .createQuery("delete from Team")
-          .executeUpdate();
+      chunkedBulkOperations.delete(member, member.id, null);
+      chunkedBulkOperations.delete(team, team.id, null);
     }
   }
 
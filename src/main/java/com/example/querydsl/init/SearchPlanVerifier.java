@@ -0,0 +1,142 @@
+package com.example.querydsl.init;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.metrics.StatementCounter;
+import com.example.querydsl.repository.MemberSearchTemplates;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 시작 시 대표 검색 쿼리를 H2 EXPLAIN으로 확인해서 인덱스 대신 테이블 스캔을 타면 경고/실패
+ * querydsl.plan-check.mode: warn | fail
+ *
+ * 손으로 쓴 SQL 대신 MemberSearchTemplates로 검색을 실제로 실행하고,
+ * Hibernate가 만든 SQL(StatementCounter가 받은 문장)을 그대로 EXPLAIN한다.
+ * EXPLAIN에는 검색 조건 값을 같은 순서로 바인딩한다. (H2는 LIKE 'prefix%'의 값을 알아야 인덱스 범위를 정한다.)
+ * age 조건만 있는 검색은 인덱스 대상이 아니므로 확인하지 않는다.
+ * usernameContains는 DB 인덱스 대신 MemberUsernameIndex로 후보를 좁히므로 여기서는 확인하지 않는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "querydsl.plan-check.mode")
+public class SearchPlanVerifier implements ApplicationRunner {
+
+  private static final String TABLE_SCAN = ".tableScan";
+
+  static final List<MemberSearchCondition> CANONICAL_CONDITIONS = List.of(
+      condition("member1", null, null, null, null),
+      condition(null, "member1", null, null, null),
+      condition(null, null, "teamA", null, null),
+      // teamName이 있으면 inner join으로 team 쪽부터 탐색하고 member는 (team_id, age) 인덱스로 찾는다.
+      condition(null, null, "teamA", 10, 40)
+  );
+
+  private final JdbcTemplate jdbcTemplate;
+  private final MemberSearchTemplates memberSearchTemplates;
+  private final TransactionTemplate transactionTemplate;
+  private final boolean failOnTableScan;
+
+  public SearchPlanVerifier(
+      JdbcTemplate jdbcTemplate,
+      MemberSearchTemplates memberSearchTemplates,
+      PlatformTransactionManager transactionManager,
+      @Value("${querydsl.plan-check.mode}") String mode
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.memberSearchTemplates = memberSearchTemplates;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.failOnTableScan = "fail".equalsIgnoreCase(mode);
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    List<String> tableScans = new ArrayList<>();
+    plans().forEach((shape, plan) -> {
+      if (plan.tableScan()) {
+        log.warn("search plan for [{}] falls back to a table scan:\n{}\n{}", shape, plan.sql(), plan.plan());
+        tableScans.add(shape);
+      } else {
+        log.debug("search plan for [{}]:\n{}", shape, plan.plan());
+      }
+    });
+
+    if (failOnTableScan && !tableScans.isEmpty()) {
+      throw new IllegalStateException("Search queries fall back to table scans: " + tableScans);
+    }
+  }
+
+  // predicate shape 이름 -> Hibernate가 만든 SQL과 그 실행 계획
+  Map<String, Plan> plans() {
+    return transactionTemplate.execute(status -> {
+      Map<String, Plan> plans = new LinkedHashMap<>();
+      for (MemberSearchCondition condition : CANONICAL_CONDITIONS) {
+        List<String> statements = StatementCounter.recordSql(() -> memberSearchTemplates.search(condition));
+        if (statements.size() != 1) {
+          throw new IllegalStateException(
+              "Expected one statement for [" + condition.predicateShapeName() + "] but got " + statements);
+        }
+        String sql = statements.get(0);
+        Object[] args = bindValues(condition);
+        if (sql.chars().filter(c -> c == '?').count() != args.length) {
+          throw new IllegalStateException(
+              "Expected " + args.length + " parameters for [" + condition.predicateShapeName() + "] but got " + sql);
+        }
+        plans.put(condition.predicateShapeName(),
+            new Plan(sql, jdbcTemplate.queryForObject("explain " + sql, String.class, args)));
+      }
+      return plans;
+    });
+  }
+
+  // MemberSearchTemplates의 where 순서 (canonical 조건에는 LIKE 이스케이프 대상 문자가 없다.)
+  private static Object[] bindValues(MemberSearchCondition condition) {
+    return Stream.of(
+            condition.getUsername(),
+            condition.getTeamName(),
+            condition.getAgeGoe(),
+            condition.getAgeLoe(),
+            condition.getUsernamePrefix() != null ? condition.getUsernamePrefix() + "%" : null
+        )
+        .filter(Objects::nonNull)
+        .toArray();
+  }
+
+  private static MemberSearchCondition condition(
+      String username,
+      String usernamePrefix,
+      String teamName,
+      Integer ageGoe,
+      Integer ageLoe
+  ) {
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setUsername(username);
+    condition.setUsernamePrefix(usernamePrefix);
+    condition.setTeamName(teamName);
+    condition.setAgeGoe(ageGoe);
+    condition.setAgeLoe(ageLoe);
+    return condition;
+  }
+
+  record Plan(String sql, String plan) {
+
+    boolean tableScan() {
+      return plan != null && plan.contains(TABLE_SCAN);
+    }
+
+  }
+
+}
@@ -0,0 +1,68 @@
+package com.example.querydsl.init;
+
+import com.example.querydsl.dto.MemberIngestRow;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.repository.ShardedMemberRepository;
+import com.example.querydsl.service.MemberIngestionService;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * 대용량 로컬 데이터 적재
+ * --spring.profiles.active=seed --querydsl.seed.members=1000000 --querydsl.seed.teams=100
+ * sharding 프로필을 함께 켜면 member/team을 shard에 나눠 적재한다.
+ */
+@Profile("seed")
+@Component
+@RequiredArgsConstructor
+public class SeedMember implements ApplicationRunner {
+
+  private static final int SHARD_BATCH_SIZE = 10_000;
+
+  private final MemberIngestionService memberIngestionService;
+  private final Optional<ShardedMemberRepository> shardedMemberRepository;
+
+  @Value("${querydsl.seed.members:1000000}")
+  private long members;
+
+  @Value("${querydsl.seed.teams:100}")
+  private int teams;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (shardedMemberRepository.isPresent()) {
+      seedShards(shardedMemberRepository.get());
+      return;
+    }
+    Iterator<MemberIngestRow> rows = LongStream.range(0, members)
+        .mapToObj(i -> new MemberIngestRow("member" + i, (int) (i % 100), "team" + (i % teams)))
+        .iterator();
+    memberIngestionService.ingest(rows);
+  }
+
+  // id는 1부터 순서대로 부여 (shard 간 member_id/team_id가 겹치지 않도록)
+  private void seedShards(ShardedMemberRepository shards) {
+    List<MemberTeamDto> batch = new ArrayList<>(SHARD_BATCH_SIZE);
+    for (long i = 0; i < members; i++) {
+      long team = i % teams;
+      batch.add(new MemberTeamDto(i + 1, "member" + i, (int) (i % 100), team + 1, "team" + team));
+      if (batch.size() == SHARD_BATCH_SIZE) {
+        shards.saveAll(batch);
+        batch.clear();
+      }
+    }
+    if (!batch.isEmpty()) {
+      shards.saveAll(batch);
+    }
+  }
+
+}
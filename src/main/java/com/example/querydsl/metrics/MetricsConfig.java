@@ -0,0 +1,17 @@
+package com.example.querydsl.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+  @Bean
+  HibernatePropertiesCustomizer statementCounterCustomizer() {
+    return hibernateProperties -> hibernateProperties
+        .put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+  }
+
+}
@@ -0,0 +1,86 @@
+package com.example.querydsl.metrics;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+/**
+ * 리포지토리 메서드별 지연시간, 반환 행 수, 실행한 SQL 문 수
+ * 태그: repository, method, shape(채워진 MemberSearchCondition 필드)
+ * /actuator/metrics/repository.query?tag=shape:teamName+ageGoe 처럼 조회
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+  private final MeterRegistry meterRegistry;
+
+  @Around("execution(public * com.example.querydsl.repository.MemberJpaRepository.*(..))"
+      + " || execution(public * com.example.querydsl.repository.MemberRepositoryCustomImpl.*(..))"
+      + " || execution(public * com.example.querydsl.repository.MemberTestRepository.*(..))")
+  public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+    Tags tags = Tags.of(
+        "repository", joinPoint.getTarget().getClass().getSimpleName(),
+        "method", joinPoint.getSignature().getName(),
+        "shape", shape(joinPoint.getArgs())
+    );
+    long statements = StatementCounter.current();
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String outcome = "error";
+    try {
+      Object result = joinPoint.proceed();
+      outcome = "success";
+      recordRows(tags, result);
+      return result;
+    } finally {
+      sample.stop(Timer.builder("repository.query")
+          .tags(tags)
+          .tag("outcome", outcome)
+          .publishPercentileHistogram()
+          .register(meterRegistry));
+      DistributionSummary.builder("repository.query.statements")
+          .tags(tags)
+          .register(meterRegistry)
+          .record(StatementCounter.current() - statements);
+    }
+  }
+
+  private void recordRows(Tags tags, Object result) {
+    long rows;
+    if (result instanceof Collection<?> collection) {
+      rows = collection.size();
+    } else if (result instanceof Slice<?> slice) {
+      rows = slice.getNumberOfElements();
+    } else if (result instanceof Optional<?> optional) {
+      rows = optional.isPresent() ? 1 : 0;
+    } else {
+      // Stream 등 호출 시점에 행 수를 알 수 없는 결과는 기록하지 않음
+      return;
+    }
+    DistributionSummary.builder("repository.query.rows")
+        .tags(tags)
+        .register(meterRegistry)
+        .record(rows);
+  }
+
+  private String shape(Object[] args) {
+    for (Object arg : args) {
+      if (arg instanceof MemberSearchCondition memberSearchCondition) {
+        return memberSearchCondition.predicateShapeName();
+      }
+    }
+    return "n/a";
+  }
+
+}
@@ -0,0 +1,102 @@
+package com.example.querydsl.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 한 단위 작업(주로 HTTP 요청) 동안 실행한 SQL 문 수와 같은 SELECT의 반복 횟수를 추적한다.
+ * 같은 SELECT가 여러 번 반복되면 지연 로딩으로 인한 N+1일 가능성이 높다.
+ * (예: 회원 목록을 돌면서 member.getTeam().getName() -> team select가 회원 수만큼)
+ *
+ * reject 모드에서는 한도를 넘는 순간 {@link StatementBudgetExceededException}으로 중단한다.
+ * 요청의 쿼리 일부가 다른 스레드에서 실행될 수 있으므로 기록/조회는 동기화한다.
+ */
+public final class StatementBudget implements AutoCloseable {
+
+  private static final ThreadLocal<StatementBudget> CURRENT = new ThreadLocal<>();
+
+  private final String name;
+  private final int maxStatements;
+  private final int maxRepeats;
+  private final boolean reject;
+  private final StatementBudget previous;
+  private final Map<String, Integer> selects = new HashMap<>();
+  private int statements;
+
+  private StatementBudget(String name, int maxStatements, int maxRepeats, boolean reject) {
+    this.name = name;
+    this.maxStatements = maxStatements;
+    this.maxRepeats = maxRepeats;
+    this.reject = reject;
+    this.previous = CURRENT.get();
+  }
+
+  public static StatementBudget open(String name, int maxStatements, int maxRepeats, boolean reject) {
+    StatementBudget budget = new StatementBudget(name, maxStatements, maxRepeats, reject);
+    CURRENT.set(budget);
+    return budget;
+  }
+
+  static StatementBudget current() {
+    return CURRENT.get();
+  }
+
+  // 다른 스레드의 budget을 현재 스레드에 연결하고 이전 값을 돌려준다. (StatementCounter.Context)
+  static StatementBudget attach(StatementBudget budget) {
+    StatementBudget previous = CURRENT.get();
+    if (budget != null) {
+      CURRENT.set(budget);
+    } else {
+      CURRENT.remove();
+    }
+    return previous;
+  }
+
+  static void record(String sql) {
+    StatementBudget budget = CURRENT.get();
+    if (budget != null) {
+      budget.onStatement(sql);
+    }
+  }
+
+  private synchronized void onStatement(String sql) {
+    statements++;
+    if (reject && statements > maxStatements) {
+      throw new StatementBudgetExceededException(
+          name + " executed more than " + maxStatements + " statements");
+    }
+    if (sql.regionMatches(true, 0, "select", 0, 6)) {
+      int repeats = selects.merge(sql, 1, Integer::sum);
+      if (reject && repeats > maxRepeats) {
+        throw new StatementBudgetExceededException(
+            name + " repeated the same select " + repeats + " times (possible N+1): " + sql);
+      }
+    }
+  }
+
+  public synchronized int statements() {
+    return statements;
+  }
+
+  public synchronized boolean exceeded() {
+    return statements > maxStatements || !repeatedSelects().isEmpty();
+  }
+
+  // maxRepeats를 넘게 반복된 SELECT와 그 횟수
+  public synchronized Map<String, Integer> repeatedSelects() {
+    return selects.entrySet().stream()
+        .filter(entry -> entry.getValue() > maxRepeats)
+        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+  }
+
+  @Override
+  public void close() {
+    if (previous != null) {
+      CURRENT.set(previous);
+    } else {
+      CURRENT.remove();
+    }
+  }
+
+}
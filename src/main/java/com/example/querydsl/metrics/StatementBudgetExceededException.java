@@ -0,0 +1,13 @@
+package com.example.querydsl.metrics;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.INTERNAL_SERVER_ERROR, reason = "Statement budget exceeded")
+public class StatementBudgetExceededException extends RuntimeException {
+
+  public StatementBudgetExceededException(String message) {
+    super(message);
+  }
+
+}
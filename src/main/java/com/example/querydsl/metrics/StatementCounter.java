@@ -0,0 +1,84 @@
+package com.example.querydsl.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * 현재 스레드에서 Hibernate가 실행한 SQL 문 수를 센다.
+ * 메서드 전후의 {@link #current()} 차이가 그 메서드가 실행한 문장 수
+ * 요청 단위 한도 확인은 {@link StatementBudget}으로 넘긴다.
+ *
+ * 요청 스레드가 다른 스레드에 맡긴 쿼리(동시 count, BatchLookup chunk)는
+ * {@link #capture()}한 Context를 작업 스레드에서 {@link Context#attach()}해서 요청 쪽에 합산한다.
+ *
+ * {@link #recordSql(Runnable)}는 작업이 실행한 SQL 원문을 모은다. (실행 계획 확인 등)
+ */
+public class StatementCounter implements StatementInspector {
+
+  private static final ThreadLocal<AtomicLong> COUNT = ThreadLocal.withInitial(AtomicLong::new);
+  private static final ThreadLocal<List<String>> RECORDED = new ThreadLocal<>();
+
+  public static long current() {
+    return COUNT.get().get();
+  }
+
+  public static Context capture() {
+    return new Context(COUNT.get(), StatementBudget.current());
+  }
+
+  // work가 현재 스레드에서 실행한 SQL (Hibernate가 실제로 만든 문장, 바인딩 파라미터는 ?)
+  public static List<String> recordSql(Runnable work) {
+    List<String> previous = RECORDED.get();
+    List<String> recorded = new ArrayList<>();
+    RECORDED.set(recorded);
+    try {
+      work.run();
+    } finally {
+      if (previous != null) {
+        RECORDED.set(previous);
+      } else {
+        RECORDED.remove();
+      }
+    }
+    return recorded;
+  }
+
+  @Override
+  public String inspect(String sql) {
+    COUNT.get().incrementAndGet();
+    List<String> recorded = RECORDED.get();
+    if (recorded != null) {
+      recorded.add(sql);
+    }
+    StatementBudget.record(sql);
+    return sql;
+  }
+
+  /**
+   * 다른 스레드로 넘겨줄 문장 수 카운터와 요청의 {@link StatementBudget}
+   */
+  public record Context(AtomicLong count, StatementBudget budget) {
+
+    // 작업 스레드에서 호출하고 작업이 끝나면 close (원래 값으로 되돌린다)
+    public Scope attach() {
+      AtomicLong previousCount = COUNT.get();
+      StatementBudget previousBudget = StatementBudget.attach(budget);
+      COUNT.set(count);
+      return () -> {
+        COUNT.set(previousCount);
+        StatementBudget.attach(previousBudget);
+      };
+    }
+
+  }
+
+  public interface Scope extends AutoCloseable {
+
+    @Override
+    void close();
+
+  }
+
+}
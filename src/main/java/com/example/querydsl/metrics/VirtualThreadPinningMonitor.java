@@ -0,0 +1,77 @@
+package com.example.querydsl.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * JFR jdk.VirtualThreadPinned 이벤트로 가상 스레드가 캐리어 스레드에 고정(pinning)된 구간을 기록
+ * JDBC 드라이버(H2)나 커넥션 풀의 synchronized 블록 안에서 블로킹되는 경우를 찾기 위한 용도
+ * 메트릭: virtual.thread.pinned (source = 스택에서 처음 만난 org.h2 / com.zaxxer / java.sql 프레임의 클래스)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "querydsl.virtual-threads.pinning-monitor", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  private static final List<String> JDBC_PACKAGES = List.of("org.h2.", "com.zaxxer.", "java.sql.", "com.p6spy.");
+  private static final int LOGGED_FRAMES = 15;
+
+  private final MeterRegistry meterRegistry;
+  private final Duration threshold;
+  private RecordingStream recordingStream;
+
+  public VirtualThreadPinningMonitor(
+      MeterRegistry meterRegistry,
+      @Value("${querydsl.virtual-threads.pinning-threshold:20ms}") Duration threshold
+  ) {
+    this.meterRegistry = meterRegistry;
+    this.threshold = threshold;
+  }
+
+  @PostConstruct
+  public void start() {
+    recordingStream = new RecordingStream();
+    recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+    recordingStream.startAsync();
+  }
+
+  @PreDestroy
+  public void stop() {
+    recordingStream.close();
+  }
+
+  private void onPinned(RecordedEvent event) {
+    List<RecordedFrame> frames = event.getStackTrace() != null
+        ? event.getStackTrace().getFrames()
+        : List.of();
+    String source = frames.stream()
+        .map(frame -> frame.getMethod().getType().getName())
+        .filter(type -> JDBC_PACKAGES.stream().anyMatch(type::startsWith))
+        .findFirst()
+        .orElse("other");
+
+    meterRegistry.counter("virtual.thread.pinned", "source", source).increment();
+    log.warn("virtual thread pinned for {} ms (source: {})\n{}",
+        event.getDuration().toMillis(),
+        source,
+        frames.stream()
+            .limit(LOGGED_FRAMES)
+            .map(frame -> "\tat " + frame.getMethod().getType().getName()
+                + "." + frame.getMethod().getName() + ":" + frame.getLineNumber())
+            .collect(Collectors.joining("\n")));
+  }
+
+}
@@ -0,0 +1,100 @@
+package com.example.querydsl.repository;
+
+import static org.springframework.util.StringUtils.hasText;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamColumns;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 대량 리포팅용 검색: 엔티티/DTO를 거치지 않고 JDBC ResultSet에서 바로 {@link MemberTeamColumns}를 채운다.
+ * 검색 조건은 MemberRepositoryCustomImpl.search와 같다.
+ * sharding이 켜져 있으면 shard를 하나씩 읽어 같은 builder에 채운다.
+ */
+@Repository
+public class MemberColumnarRepository {
+
+  private static final String SEARCH_SQL = """
+      select m.member_id, m.username, m.age, t.team_id, t.name
+      from member m
+      left join team t on t.team_id = m.team_id
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Optional<ShardedMemberRepository> shardedMemberRepository;
+  private final int fetchSize;
+
+  public MemberColumnarRepository(
+      DataSource dataSource,
+      Optional<ShardedMemberRepository> shardedMemberRepository,
+      @Value("${querydsl.export.fetch-size:500}") int fetchSize
+  ) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(fetchSize);
+    this.shardedMemberRepository = shardedMemberRepository;
+    this.fetchSize = fetchSize;
+  }
+
+  public MemberTeamColumns searchColumns(MemberSearchCondition memberSearchCondition) {
+    MemberTeamColumns.Builder builder = MemberTeamColumns.builder();
+    if (shardedMemberRepository.isPresent()) {
+      shardedMemberRepository.get().query(memberSearchCondition, fetchSize, collector(builder));
+      return builder.build();
+    }
+
+    List<String> where = new ArrayList<>();
+    List<Object> args = new ArrayList<>();
+    if (hasText(memberSearchCondition.getUsername())) {
+      where.add("m.username = ?");
+      args.add(memberSearchCondition.getUsername());
+    }
+    if (hasText(memberSearchCondition.getUsernamePrefix())) {
+      where.add("m.username like ? escape '!'");
+      args.add(ShardedMemberRepository.escapeLike(memberSearchCondition.getUsernamePrefix()) + "%");
+    }
+    if (hasText(memberSearchCondition.getUsernameContains())) {
+      where.add("m.username like ? escape '!'");
+      args.add("%" + ShardedMemberRepository.escapeLike(memberSearchCondition.getUsernameContains()) + "%");
+    }
+    if (hasText(memberSearchCondition.getTeamName())) {
+      where.add("t.name = ?");
+      args.add(memberSearchCondition.getTeamName());
+    }
+    if (memberSearchCondition.getAgeGoe() != null) {
+      where.add("m.age >= ?");
+      args.add(memberSearchCondition.getAgeGoe());
+    }
+    if (memberSearchCondition.getAgeLoe() != null) {
+      where.add("m.age <= ?");
+      args.add(memberSearchCondition.getAgeLoe());
+    }
+
+    String sql = where.isEmpty() ? SEARCH_SQL : SEARCH_SQL + "where " + String.join(" and ", where);
+
+    jdbcTemplate.query(sql, collector(builder), args.toArray());
+    return builder.build();
+  }
+
+  // 행(member_id, username, age, team_id, team name)을 DTO 없이 builder에 바로 추가
+  private static RowCallbackHandler collector(MemberTeamColumns.Builder builder) {
+    return resultSet -> {
+      long teamId = resultSet.getLong(4);
+      boolean noTeam = resultSet.wasNull();
+      builder.add(
+          resultSet.getLong(1),
+          resultSet.getString(2),
+          resultSet.getInt(3),
+          noTeam ? null : teamId,
+          resultSet.getString(5)
+      );
+    };
+  }
+
+}
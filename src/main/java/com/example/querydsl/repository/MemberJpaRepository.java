@@ -11,11 +11,15 @@ import com.example.querydsl.entity.Member;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.JPQLQueryFactory;
+import com.querydsl.jpa.impl.JPAQuery;
 import jakarta.persistence.EntityManager;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 @RequiredArgsConstructor
@@ -23,6 +27,9 @@ public class MemberJpaRepository {
 
   private final EntityManager entityManager;
   private final JPQLQueryFactory queryFactory;
+  private final MemberSearchTemplates memberSearchTemplates;
+  // querydsl.sharding.enabled=true이면 DTO 검색은 shard에서 처리
+  private final Optional<ShardedMemberRepository> shardedMemberRepository;
 
   public void save(Member member) {
     entityManager.persist(member);
@@ -57,13 +64,25 @@ public class MemberJpaRepository {
         .fetch();
   }
 
+  @Transactional(readOnly = true)
   public List<MemberTeamDto> searchByBuilder(MemberSearchCondition memberSearchCondition) {
+    if (shardedMemberRepository.isPresent()) {
+      return shardedMemberRepository.get().search(memberSearchCondition);
+    }
     BooleanBuilder booleanBuilder = new BooleanBuilder();
 
     if (hasText(memberSearchCondition.getUsername())) {
       booleanBuilder.and(member.username.eq(memberSearchCondition.getUsername()));
     }
 
+    if (hasText(memberSearchCondition.getUsernamePrefix())) {
+      booleanBuilder.and(member.username.startsWith(memberSearchCondition.getUsernamePrefix()));
+    }
+
+    if (hasText(memberSearchCondition.getUsernameContains())) {
+      booleanBuilder.and(memberSearchTemplates.usernameContains(memberSearchCondition.getUsernameContains()));
+    }
+
     if (hasText(memberSearchCondition.getTeamName())) {
       booleanBuilder.and(team.name.eq(memberSearchCondition.getTeamName()));
     }
@@ -84,7 +103,11 @@ public class MemberJpaRepository {
         .fetch();
   }
 
+  @Transactional(readOnly = true)
   public List<MemberTeamDto> searchByWhere(MemberSearchCondition memberSearchCondition) {
+    if (shardedMemberRepository.isPresent()) {
+      return shardedMemberRepository.get().search(memberSearchCondition);
+    }
     return queryFactory
         .select(new QMemberTeamDto(
             member.id,
@@ -97,16 +120,58 @@ public class MemberJpaRepository {
         .leftJoin(member.team, team)
         .where(
             usernameEq(memberSearchCondition.getUsername()),
+            usernameStartsWith(memberSearchCondition.getUsernamePrefix()),
+            usernameContains(memberSearchCondition.getUsernameContains()),
             teamNameEq(memberSearchCondition.getTeamName()),
             ageBetween(memberSearchCondition.getAgeGoe(), memberSearchCondition.getAgeLoe())
         )
         .fetch();
   }
 
+  /*
+   * 결과를 List로 모으지 않고 forward-only 커서로 한 건씩 읽는다.
+   * 호출하는 쪽에서 트랜잭션 안에서 사용하고, 다 읽은 뒤 반드시 close 해야 한다.
+   * primary DB만 읽으므로 sharding이 켜져 있으면 ShardedMemberRepository.forEach를 사용한다. (MemberExportService)
+   * */
+  public Stream<MemberTeamDto> streamByWhere(
+      MemberSearchCondition memberSearchCondition,
+      int fetchSize
+  ) {
+    return new JPAQuery<>(entityManager)
+        .select(new QMemberTeamDto(
+            member.id,
+            member.username,
+            member.age,
+            team.id,
+            team.name
+        ))
+        .from(member)
+        .leftJoin(member.team, team)
+        .where(
+            usernameEq(memberSearchCondition.getUsername()),
+            usernameStartsWith(memberSearchCondition.getUsernamePrefix()),
+            usernameContains(memberSearchCondition.getUsernameContains()),
+            teamNameEq(memberSearchCondition.getTeamName()),
+            ageGoe(memberSearchCondition.getAgeGoe()),
+            ageLoe(memberSearchCondition.getAgeLoe())
+        )
+        .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .stream();
+  }
+
   private BooleanExpression usernameEq(String username) {
     return hasText(username) ? member.username.eq(username) : null;
   }
 
+  private BooleanExpression usernameStartsWith(String prefix) {
+    return hasText(prefix) ? member.username.startsWith(prefix) : null;
+  }
+
+  private BooleanExpression usernameContains(String fragment) {
+    return hasText(fragment) ? memberSearchTemplates.usernameContains(fragment) : null;
+  }
+
   private BooleanExpression teamNameEq(String teamName) {
     return hasText(teamName) ? team.name.eq(teamName) : null;
   }
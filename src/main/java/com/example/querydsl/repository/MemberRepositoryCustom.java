@@ -2,9 +2,12 @@ package com.example.querydsl.repository;
 
 import com.example.querydsl.dto.MemberSearchCondition;
 import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.repository.support.CountStrategy;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface MemberRepositoryCustom {
 
@@ -20,4 +23,20 @@ public interface MemberRepositoryCustom {
       Pageable pageable
   );
 
+  Page<MemberTeamDto> searchPageComplex(
+      MemberSearchCondition memberSearchCondition,
+      Pageable pageable,
+      CountStrategy countStrategy
+  );
+
+  Slice<MemberTeamDto> searchSlice(
+      MemberSearchCondition memberSearchCondition,
+      Long lastMemberId,
+      int size
+  );
+
+  List<MemberTeamDto> findAllByIds(Collection<Long> memberIds);
+
+  List<MemberTeamDto> findAllByUsernames(Collection<String> usernames);
+
 }
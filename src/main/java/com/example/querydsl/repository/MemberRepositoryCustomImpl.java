@@ -7,45 +7,81 @@ import static org.springframework.util.StringUtils.hasText;
 import com.example.querydsl.dto.MemberSearchCondition;
 import com.example.querydsl.dto.MemberTeamDto;
 import com.example.querydsl.dto.QMemberTeamDto;
-import com.querydsl.core.QueryResults;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.repository.support.BatchLookup;
+import com.example.querydsl.repository.support.CountStrategy;
+import com.example.querydsl.repository.support.CountedPage;
+import com.example.querydsl.repository.support.EntityChange;
+import com.example.querydsl.repository.support.PageCounter;
+import com.example.querydsl.repository.support.PageResultCache;
+import com.example.querydsl.repository.support.Pages;
+import com.example.querydsl.repository.support.SingleFlight;
+import com.querydsl.core.Tuple;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberTemplate;
+import com.querydsl.jpa.JPQLQuery;
 import com.querydsl.jpa.JPQLQueryFactory;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
 
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class MemberRepositoryCustomImpl implements MemberRepositoryCustom {
 
+  private static final NumberTemplate<Long> TOTAL_OVER = Expressions.numberTemplate(
+      Long.class,
+      "count(*) over()"
+  );
+
   private final JPQLQueryFactory queryFactory;
+  private final PageCounter pageCounter;
+  private final MemberSearchTemplates memberSearchTemplates;
+  private final SingleFlight singleFlight;
+  private final PageResultCache pageResultCache;
+  private final BatchLookup batchLookup;
+  private final PlatformTransactionManager transactionManager;
+  // querydsl.sharding.enabled=true이면 모든 검색/조회를 shard scatter-gather로 처리 (페이지 캐시/SingleFlight 없이)
+  private final Optional<ShardedMemberRepository> shardedMemberRepository;
 
   @Override
   public List<MemberTeamDto> search(MemberSearchCondition memberSearchCondition) {
-    return queryFactory
-        .select(new QMemberTeamDto(
-            member.id,
-            member.username,
-            member.age,
-            team.id,
-            team.name
-        ))
-        .from(member)
-        .leftJoin(member.team, team)
-        .where(
-            usernameEq(memberSearchCondition.getUsername()),
-            teamNameEq(memberSearchCondition.getTeamName()),
-            ageGoe(memberSearchCondition.getAgeGoe()),
-            ageLoe(memberSearchCondition.getAgeLoe())
-        )
-        .fetch();
+    if (shardedMemberRepository.isPresent()) {
+      return shardedMemberRepository.get().search(memberSearchCondition);
+    }
+    return memberSearchTemplates.search(memberSearchCondition);
   }
 
   private BooleanExpression usernameEq(String username) {
     return hasText(username) ? member.username.eq(username) : null;
   }
 
+  private BooleanExpression usernameStartsWith(String prefix) {
+    return hasText(prefix) ? member.username.startsWith(prefix) : null;
+  }
+
+  private BooleanExpression usernameContains(String fragment) {
+    return hasText(fragment) ? memberSearchTemplates.usernameContains(fragment) : null;
+  }
+
   private BooleanExpression teamNameEq(String teamName) {
     return hasText(teamName) ? team.name.eq(teamName) : null;
   }
@@ -58,41 +94,176 @@ public class MemberRepositoryCustomImpl implements MemberRepositoryCustom {
     return age != null ? member.age.goe(age) : null;
   }
 
+  // 같은 조건/페이지의 동시 요청은 한 번만 조회 (SingleFlight)
   @Override
+  @Transactional(propagation = Propagation.SUPPORTS)
   public Page<MemberTeamDto> searchPageSimple(
       MemberSearchCondition memberSearchCondition,
       Pageable pageable
   ) {
-    QueryResults<MemberTeamDto> queryResults = queryFactory
-        .select(new QMemberTeamDto(
+    if (shardedMemberRepository.isPresent()) {
+      return shardedMemberRepository.get().searchPageComplex(memberSearchCondition, pageable);
+    }
+    MemberSearchCondition normalized = memberSearchCondition.normalized();
+    return pageResultCache.execute(
+        "searchPageSimple",
+        List.of(normalized, pageable),
+        () -> singleFlight.execute(
+            "searchPageSimple",
+            List.of(normalized, pageable),
+            () -> inReadOnlyTransaction(() -> doSearchPageSimple(memberSearchCondition, pageable)),
+            MemberRepositoryCustomImpl::copyOf
+        ),
+        MemberRepositoryCustomImpl::copyOf,
+        (page, change) -> affects(normalized, page, change)
+    );
+  }
+
+  private Page<MemberTeamDto> doSearchPageSimple(
+      MemberSearchCondition memberSearchCondition,
+      Pageable pageable
+  ) {
+    // count(*) over()로 페이지 내용과 전체 건수를 한 번의 쿼리로 조회
+    List<Tuple> rows = queryFactory
+        .select(
             member.id,
             member.username,
             member.age,
             team.id,
-            team.name
-        ))
+            team.name,
+            TOTAL_OVER
+        )
         .from(member)
         .leftJoin(member.team, team)
         .where(
             usernameEq(memberSearchCondition.getUsername()),
+            usernameStartsWith(memberSearchCondition.getUsernamePrefix()),
+            usernameContains(memberSearchCondition.getUsernameContains()),
             teamNameEq(memberSearchCondition.getTeamName()),
             ageGoe(memberSearchCondition.getAgeGoe()),
             ageLoe(memberSearchCondition.getAgeLoe())
         )
         .offset(pageable.getOffset())
         .limit(pageable.getPageSize())
-        .fetchResults();
+        .fetch();
+
+    List<MemberTeamDto> content = rows.stream()
+        .map(row -> new MemberTeamDto(
+            row.get(member.id),
+            row.get(member.username),
+            row.get(member.age),
+            row.get(team.id),
+            row.get(team.name)
+        ))
+        .toList();
 
-    List<MemberTeamDto> content = queryResults.getResults();
-    long total = queryResults.getTotal();
+    // 마지막 페이지를 넘어선 요청이면 total을 알 수 없으므로 그때만 count 쿼리
+    long total = rows.isEmpty()
+        ? countOf(memberSearchCondition)
+        : rows.get(0).get(TOTAL_OVER);
     return new PageImpl<>(content, pageable, total);
   }
 
+  private long countOf(MemberSearchCondition memberSearchCondition) {
+    Long total = queryFactory
+        .select(member.count())
+        .from(member)
+        .leftJoin(member.team, team)
+        .where(
+            usernameEq(memberSearchCondition.getUsername()),
+            usernameStartsWith(memberSearchCondition.getUsernamePrefix()),
+            usernameContains(memberSearchCondition.getUsernameContains()),
+            teamNameEq(memberSearchCondition.getTeamName()),
+            ageGoe(memberSearchCondition.getAgeGoe()),
+            ageLoe(memberSearchCondition.getAgeLoe())
+        )
+        .fetchOne();
+    return total != null ? total : 0;
+  }
+
   @Override
+  @Transactional(propagation = Propagation.SUPPORTS)
   public Page<MemberTeamDto> searchPageComplex(
       MemberSearchCondition memberSearchCondition,
       Pageable pageable
   ) {
+    return searchPageComplex(memberSearchCondition, pageable, CountStrategy.EXACT);
+  }
+
+  @Override
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public Page<MemberTeamDto> searchPageComplex(
+      MemberSearchCondition memberSearchCondition,
+      Pageable pageable,
+      CountStrategy countStrategy
+  ) {
+    // shard의 total은 shard별 count의 합이므로 countStrategy와 관계없이 정확하다.
+    // shard 쓰기는 JPA 이벤트를 거치지 않으므로 페이지 캐시에 넣지 않는다.
+    if (shardedMemberRepository.isPresent()) {
+      Page<MemberTeamDto> page = shardedMemberRepository.get().searchPageComplex(memberSearchCondition, pageable);
+      return new CountedPage<>(page.getContent(), pageable, page.getTotalElements(), CountStrategy.EXACT, false);
+    }
+    MemberSearchCondition normalized = memberSearchCondition.normalized();
+    return pageResultCache.execute(
+        "searchPageComplex",
+        List.of(normalized, pageable, countStrategy),
+        () -> singleFlight.execute(
+            "searchPageComplex",
+            List.of(normalized, pageable, countStrategy),
+            () -> inReadOnlyTransaction(() -> doSearchPageComplex(memberSearchCondition, pageable, countStrategy)),
+            MemberRepositoryCustomImpl::copyOf
+        ),
+        MemberRepositoryCustomImpl::copyOf,
+        (page, change) -> affects(normalized, page, change)
+    );
+  }
+
+  private Page<MemberTeamDto> doSearchPageComplex(
+      MemberSearchCondition memberSearchCondition,
+      Pageable pageable,
+      CountStrategy countStrategy
+  ) {
+    List<MemberTeamDto> content = memberSearchTemplates.search(
+        memberSearchCondition,
+        pageable.getOffset(),
+        pageable.getPageSize()
+    );
+
+    JPQLQuery<Member> countQuery = queryFactory
+        .selectFrom(member)
+        .leftJoin(member.team, team)
+        .where(
+            usernameEq(memberSearchCondition.getUsername()),
+            usernameStartsWith(memberSearchCondition.getUsernamePrefix()),
+            usernameContains(memberSearchCondition.getUsernameContains()),
+            teamNameEq(memberSearchCondition.getTeamName()),
+            ageGoe(memberSearchCondition.getAgeGoe()),
+            ageLoe(memberSearchCondition.getAgeLoe())
+        );
+
+    return pageCounter.getPage(
+        content,
+        pageable,
+        countStrategy,
+        List.of("searchPageComplex", memberSearchCondition.normalized()),
+        countQuery
+    );
+  }
+
+  /*
+   * offset 대신 마지막으로 조회한 member.id 이후부터 읽는 keyset 페이징
+   * 건너뛴 행을 스캔하지 않으므로 페이지 깊이와 무관하게 PK 인덱스만 탐색
+   * */
+  @Override
+  public Slice<MemberTeamDto> searchSlice(
+      MemberSearchCondition memberSearchCondition,
+      Long lastMemberId,
+      int size
+  ) {
+    Assert.isTrue(size > 0, "Slice size must be positive");
+    if (shardedMemberRepository.isPresent()) {
+      return shardedMemberRepository.get().searchSlice(memberSearchCondition, lastMemberId, size);
+    }
     List<MemberTeamDto> content = queryFactory
         .select(new QMemberTeamDto(
             member.id,
@@ -104,28 +275,149 @@ public class MemberRepositoryCustomImpl implements MemberRepositoryCustom {
         .from(member)
         .leftJoin(member.team, team)
         .where(
+            memberIdGt(lastMemberId),
             usernameEq(memberSearchCondition.getUsername()),
+            usernameStartsWith(memberSearchCondition.getUsernamePrefix()),
+            usernameContains(memberSearchCondition.getUsernameContains()),
             teamNameEq(memberSearchCondition.getTeamName()),
             ageGoe(memberSearchCondition.getAgeGoe()),
             ageLoe(memberSearchCondition.getAgeLoe())
         )
-        .offset(pageable.getOffset())
-        .limit(pageable.getPageSize())
+        .orderBy(member.id.asc())
+        .limit(size + 1L) // 다음 페이지 존재 여부 확인용으로 1건 더 조회 (Integer.MAX_VALUE에서 넘치지 않도록 long)
         .fetch();
 
-    Long total = queryFactory
-        .select(member.count())
+    boolean hasNext = content.size() > size;
+    if (hasNext) {
+      content = content.subList(0, size);
+    }
+    return new SliceImpl<>(content, PageRequest.ofSize(size), hasNext);
+  }
+
+  /*
+   * 많은 id/username을 2의 거듭제곱 크기로 패딩한 in 절 chunk로 나눠 조회 (BatchLookup)
+   * 호출자 트랜잭션이 없으면 chunk를 동시에 조회하도록 클래스의 readOnly 트랜잭션에 참여하지 않는다.
+   * */
+  @Override
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public List<MemberTeamDto> findAllByIds(Collection<Long> memberIds) {
+    if (shardedMemberRepository.isPresent()) {
+      return shardedMemberRepository.get().findAllByIds(memberIds);
+    }
+    return batchLookup.lookup(memberIds, (chunkQueryFactory, chunk) -> chunkQueryFactory
+        .select(new QMemberTeamDto(
+            member.id,
+            member.username,
+            member.age,
+            team.id,
+            team.name
+        ))
         .from(member)
         .leftJoin(member.team, team)
-        .where(
-            usernameEq(memberSearchCondition.getUsername()),
-            teamNameEq(memberSearchCondition.getTeamName()),
-            ageGoe(memberSearchCondition.getAgeGoe()),
-            ageLoe(memberSearchCondition.getAgeLoe())
-        )
-        .fetchOne();
+        .where(member.id.in(chunk))
+        .fetch());
+  }
 
-    return new PageImpl<>(content, pageable, total);
+  @Override
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public List<MemberTeamDto> findAllByUsernames(Collection<String> usernames) {
+    if (shardedMemberRepository.isPresent()) {
+      return shardedMemberRepository.get().findAllByUsernames(usernames);
+    }
+    return batchLookup.lookup(usernames, (chunkQueryFactory, chunk) -> chunkQueryFactory
+        .select(new QMemberTeamDto(
+            member.id,
+            member.username,
+            member.age,
+            team.id,
+            team.name
+        ))
+        .from(member)
+        .leftJoin(member.team, team)
+        .where(member.username.in(chunk))
+        .fetch());
+  }
+
+  private BooleanExpression memberIdGt(Long lastMemberId) {
+    return lastMemberId != null ? member.id.gt(lastMemberId) : null;
+  }
+
+  /*
+   * 캐시된 검색 페이지가 커밋된 변경에 영향을 받는지
+   * - Member: 변경 전 또는 후의 상태가 검색 조건에 맞으면 content나 total이 바뀔 수 있다.
+   * - Team: 조건의 teamName과 같은 이름이거나, 페이지에 그 팀이 나오면(팀 이름 표시) 영향
+   * */
+  private static boolean affects(
+      MemberSearchCondition memberSearchCondition,
+      Page<MemberTeamDto> page,
+      EntityChange change
+  ) {
+    if (change.entityType() == Member.class) {
+      return change.isUnknown()
+          || mayMatch(memberSearchCondition, change.oldState())
+          || mayMatch(memberSearchCondition, change.newState());
+    }
+    if (change.entityType() == Team.class) {
+      return change.isUnknown()
+          || hasTeamName(memberSearchCondition, change.oldState())
+          || hasTeamName(memberSearchCondition, change.newState())
+          || page.getContent().stream().anyMatch(row -> Objects.equals(row.getTeamId(), change.id()));
+    }
+    return false;
+  }
+
+  private static boolean mayMatch(MemberSearchCondition memberSearchCondition, Map<String, Object> state) {
+    if (state == null) {
+      return false;
+    }
+    String username = (String) state.get("username");
+    int age = (Integer) state.get("age");
+    if (memberSearchCondition.getUsername() != null
+        && !memberSearchCondition.getUsername().equals(username)) {
+      return false;
+    }
+    if (memberSearchCondition.getUsernamePrefix() != null
+        && (username == null || !username.startsWith(memberSearchCondition.getUsernamePrefix()))) {
+      return false;
+    }
+    if (memberSearchCondition.getUsernameContains() != null
+        && (username == null || !username.contains(memberSearchCondition.getUsernameContains()))) {
+      return false;
+    }
+    if (memberSearchCondition.getAgeGoe() != null && age < memberSearchCondition.getAgeGoe()) {
+      return false;
+    }
+    if (memberSearchCondition.getAgeLoe() != null && age > memberSearchCondition.getAgeLoe()) {
+      return false;
+    }
+    if (memberSearchCondition.getTeamName() != null) {
+      Object memberTeam = state.get("team");
+      if (memberTeam == null) {
+        return false;
+      }
+      // 초기화되지 않은 프록시는 이름을 알 수 없으므로 영향을 받는 것으로 본다.
+      return !Hibernate.isInitialized(memberTeam)
+          || memberSearchCondition.getTeamName().equals(((Team) memberTeam).getName());
+    }
+    return true;
+  }
+
+  private static boolean hasTeamName(MemberSearchCondition memberSearchCondition, Map<String, Object> state) {
+    return state != null
+        && memberSearchCondition.getTeamName() != null
+        && memberSearchCondition.getTeamName().equals(state.get("name"));
+  }
+
+  // 트랜잭션 밖에서 합친 뒤 실제로 실행하는 호출만 읽기 전용 트랜잭션을 연다.
+  // (기다리기만 하는 호출이 커넥션을 잡고 있지 않도록)
+  private <T> T inReadOnlyTransaction(Supplier<T> query) {
+    TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.setReadOnly(true);
+    return transactionTemplate.execute(status -> query.get());
+  }
+
+  private static Page<MemberTeamDto> copyOf(Page<MemberTeamDto> page) {
+    return Pages.copyOf(page, MemberTeamDto::copy);
   }
 
 }
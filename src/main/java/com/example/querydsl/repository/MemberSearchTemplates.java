@@ -0,0 +1,214 @@
+package com.example.querydsl.repository;
+
+import static com.example.querydsl.dto.MemberSearchCondition.AGE_GOE;
+import static com.example.querydsl.dto.MemberSearchCondition.AGE_LOE;
+import static com.example.querydsl.dto.MemberSearchCondition.TEAM_NAME;
+import static com.example.querydsl.dto.MemberSearchCondition.USERNAME;
+import static com.example.querydsl.dto.MemberSearchCondition.USERNAME_CONTAINS;
+import static com.example.querydsl.dto.MemberSearchCondition.USERNAME_PREFIX;
+import static com.example.querydsl.entity.QMember.member;
+import static com.example.querydsl.entity.QTeam.team;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.dto.QMemberTeamDto;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.Param;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAProvider;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 검색 조건의 "어떤 필터가 있는지"(predicate shape)별로 JPQL을 한 번만 만들어 두고,
+ * 이후에는 파라미터만 바인딩해서 실행한다.
+ * shape는 조건 6개 + n-gram 후보 사용 여부의 조합이므로 캐시 크기도 128을 넘지 않는다.
+ *
+ * usernameContains는 MemberUsernameIndex의 후보 id로 먼저 좁히고 LIKE로 다시 확인한다.
+ * usernamePrefix는 idx_member_username 인덱스로 처리되므로 LIKE 'prefix%'만 붙인다.
+ * - 메트릭: repository.search.template(result=hit|miss), repository.search.template.size
+ */
+@Component
+public class MemberSearchTemplates {
+
+  private static final Param<String> USERNAME_PARAM = new Param<>(String.class, "username");
+  private static final Param<String> TEAM_NAME_PARAM = new Param<>(String.class, "teamName");
+  private static final Param<Integer> AGE_GOE_PARAM = new Param<>(Integer.class, "ageGoe");
+  private static final Param<Integer> AGE_LOE_PARAM = new Param<>(Integer.class, "ageLoe");
+  private static final Param<String> USERNAME_PREFIX_PARAM = new Param<>(String.class, "usernamePrefix");
+  private static final Param<String> USERNAME_CONTAINS_PARAM = new Param<>(String.class, "usernameContains");
+  @SuppressWarnings("rawtypes")
+  private static final Param<Collection> MEMBER_IDS_PARAM = new Param<>(Collection.class, "memberIds");
+
+  // predicate shape에 더해 n-gram 후보 id 조건을 쓰는지 여부
+  private static final int CANDIDATES = 1 << 6;
+
+  // Querydsl의 like 템플릿이 escape '!'를 쓰므로 바인딩 값도 같은 규칙으로 이스케이프
+  private static final char LIKE_ESCAPE = '!';
+
+  private static final QMemberTeamDto PROJECTION = new QMemberTeamDto(
+      member.id,
+      member.username,
+      member.age,
+      team.id,
+      team.name
+  );
+
+  private final EntityManager entityManager;
+  private final MemberUsernameIndex memberUsernameIndex;
+  private final Map<Integer, Template> templates = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public MemberSearchTemplates(
+      EntityManager entityManager,
+      MemberUsernameIndex memberUsernameIndex,
+      MeterRegistry meterRegistry
+  ) {
+    this.entityManager = entityManager;
+    this.memberUsernameIndex = memberUsernameIndex;
+    FunctionCounter.builder("repository.search.template", hits, LongAdder::sum)
+        .tag("result", "hit")
+        .register(meterRegistry);
+    FunctionCounter.builder("repository.search.template", misses, LongAdder::sum)
+        .tag("result", "miss")
+        .register(meterRegistry);
+    Gauge.builder("repository.search.template.size", templates, Map::size)
+        .register(meterRegistry);
+  }
+
+  public List<MemberTeamDto> search(MemberSearchCondition memberSearchCondition) {
+    return search(memberSearchCondition, 0, -1);
+  }
+
+  public List<MemberTeamDto> search(
+      MemberSearchCondition memberSearchCondition,
+      long offset,
+      int limit
+  ) {
+    int shape = memberSearchCondition.predicateShape();
+    List<Long> candidates = null;
+    if ((shape & USERNAME_CONTAINS) != 0) {
+      candidates = usernameCandidates(memberSearchCondition.getUsernameContains());
+      if (candidates != null && candidates.isEmpty()) {
+        return List.of();
+      }
+    }
+    Template template = template(candidates != null ? shape | CANDIDATES : shape);
+
+    Map<ParamExpression<?>, Object> params = new HashMap<>();
+    params.put(USERNAME_PARAM, memberSearchCondition.getUsername());
+    params.put(TEAM_NAME_PARAM, memberSearchCondition.getTeamName());
+    params.put(AGE_GOE_PARAM, memberSearchCondition.getAgeGoe());
+    params.put(AGE_LOE_PARAM, memberSearchCondition.getAgeLoe());
+    // 'prefix%' 전체를 한 파라미터로 바인딩해야 H2가 username 인덱스 범위 탐색을 쓴다. (?||'%'는 테이블 스캔)
+    String usernamePrefix = escapeLike(memberSearchCondition.getUsernamePrefix());
+    params.put(USERNAME_PREFIX_PARAM, usernamePrefix != null ? usernamePrefix + "%" : null);
+    params.put(USERNAME_CONTAINS_PARAM, escapeLike(memberSearchCondition.getUsernameContains()));
+    params.put(MEMBER_IDS_PARAM, candidates);
+
+    Query query = entityManager.createQuery(template.jpql());
+    JPAUtil.setConstants(query, template.constants(), params);
+    if (offset > 0) {
+      query.setFirstResult(Math.toIntExact(offset));
+    }
+    if (limit >= 0) {
+      query.setMaxResults(limit);
+    }
+
+    @SuppressWarnings("unchecked")
+    List<Object[]> rows = query.getResultList();
+    return rows.stream()
+        .map(PROJECTION::newInstance)
+        .toList();
+  }
+
+  /*
+   * username 부분 일치 조건 (Querydsl 쿼리에서 where 절에 그대로 쓰는 용도)
+   * 인덱스 후보가 있으면 PK로 좁히고, 후보가 너무 많으면 LIKE 스캔
+   * */
+  public BooleanExpression usernameContains(String fragment) {
+    BooleanExpression contains = member.username.contains(fragment);
+    List<Long> candidates = usernameCandidates(fragment);
+    return candidates != null ? member.id.in(candidates).and(contains) : contains;
+  }
+
+  // 인덱스는 flush 시점의 엔티티 콜백으로 갱신되므로 보류 중인 쓰기를 먼저 flush
+  private List<Long> usernameCandidates(String fragment) {
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      entityManager.flush();
+    }
+    return memberUsernameIndex.candidates(fragment);
+  }
+
+  private static String escapeLike(String value) {
+    if (value == null) {
+      return null;
+    }
+    StringBuilder escaped = new StringBuilder(value.length());
+    for (char c : value.toCharArray()) {
+      if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+        escaped.append(LIKE_ESCAPE);
+      }
+      escaped.append(c);
+    }
+    return escaped.toString();
+  }
+
+  private Template template(int shape) {
+    Template template = templates.get(shape);
+    if (template != null) {
+      hits.increment();
+      return template;
+    }
+    misses.increment();
+    return templates.computeIfAbsent(shape, this::build);
+  }
+
+  private Template build(int shape) {
+    JPAQuery<MemberTeamDto> query = new JPAQuery<>(entityManager)
+        .select(PROJECTION)
+        .from(member);
+
+    // team.name 조건은 null인 team을 어차피 걸러내므로 inner join으로 바꿔
+    // DB가 team 인덱스부터 탐색할 수 있게 한다.
+    if ((shape & TEAM_NAME) != 0) {
+      query.join(member.team, team);
+    } else {
+      query.leftJoin(member.team, team);
+    }
+
+    query.where(
+        (shape & USERNAME) != 0 ? member.username.eq(USERNAME_PARAM) : null,
+        (shape & TEAM_NAME) != 0 ? team.name.eq(TEAM_NAME_PARAM) : null,
+        (shape & AGE_GOE) != 0 ? member.age.goe(AGE_GOE_PARAM) : null,
+        (shape & AGE_LOE) != 0 ? member.age.loe(AGE_LOE_PARAM) : null,
+        (shape & USERNAME_PREFIX) != 0 ? member.username.like(USERNAME_PREFIX_PARAM, LIKE_ESCAPE) : null,
+        (shape & CANDIDATES) != 0 ? Expressions.booleanTemplate("{0} in {1}", member.id, MEMBER_IDS_PARAM) : null,
+        (shape & USERNAME_CONTAINS) != 0 ? member.username.contains(USERNAME_CONTAINS_PARAM) : null
+    );
+
+    JPQLSerializer serializer = new JPQLSerializer(JPAProvider.getTemplates(entityManager), entityManager);
+    serializer.serialize(query.getMetadata(), false, null);
+    return new Template(serializer.toString(), List.copyOf(serializer.getConstants()));
+  }
+
+  private record Template(String jpql, List<Object> constants) {
+  }
+
+}
@@ -5,12 +5,16 @@ import static com.example.querydsl.entity.QTeam.team;
 import static org.springframework.util.StringUtils.hasText;
 
 import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.dto.QMemberTeamDto;
 import com.example.querydsl.entity.Member;
+import com.example.querydsl.repository.support.CountStrategy;
 import com.example.querydsl.repository.support.Querydsl4RepositorySupport;
 import com.querydsl.core.QueryFactory;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import java.util.List;
+import java.util.function.UnaryOperator;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.support.PageableExecutionUtils;
@@ -94,6 +98,139 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
     );
   }
 
+  public Page<Member> applyPagination(
+      MemberSearchCondition memberSearchCondition,
+      Pageable pageable,
+      CountStrategy countStrategy
+  ) {
+    return applyPagination(
+        pageable,
+        contentQuery -> contentQuery
+            .selectFrom(member)
+            .leftJoin(member.team, team)
+            .where(usernameEq(memberSearchCondition.getUsername()),
+                teamNameEq(memberSearchCondition.getTeamName()),
+                ageGoe(memberSearchCondition.getAgeGoe()),
+                ageLoe(memberSearchCondition.getAgeLoe())),
+        countQuery -> countQuery
+            .selectFrom(member)
+            .leftJoin(member.team, team)
+            .where(usernameEq(memberSearchCondition.getUsername()),
+                teamNameEq(memberSearchCondition.getTeamName()),
+                ageGoe(memberSearchCondition.getAgeGoe()),
+                ageLoe(memberSearchCondition.getAgeLoe())),
+        countStrategy,
+        memberSearchCondition.normalized()
+    );
+  }
+
+  public List<Member> readOnlySelectFrom() {
+    return selectFromReadOnly(member).fetch();
+  }
+
+  public Page<Member> applyReadOnlyPagination(
+      MemberSearchCondition memberSearchCondition,
+      Pageable pageable
+  ) {
+    return applyReadOnlyPagination(
+        pageable,
+        contentQuery -> contentQuery
+            .selectFrom(member)
+            .leftJoin(member.team, team)
+            .where(usernameEq(memberSearchCondition.getUsername()),
+                teamNameEq(memberSearchCondition.getTeamName()),
+                ageGoe(memberSearchCondition.getAgeGoe()),
+                ageLoe(memberSearchCondition.getAgeLoe())),
+        countQuery -> countQuery
+            .selectFrom(member)
+            .leftJoin(member.team, team)
+            .where(usernameEq(memberSearchCondition.getUsername()),
+                teamNameEq(memberSearchCondition.getTeamName()),
+                ageGoe(memberSearchCondition.getAgeGoe()),
+                ageLoe(memberSearchCondition.getAgeLoe()))
+    );
+  }
+
+  // 엔티티는 세션 밖에서 공유되면 안 되므로 캐시하는 페이지는 DTO로 조회
+  public Page<MemberTeamDto> applyCachedPagination(
+      MemberSearchCondition memberSearchCondition,
+      Pageable pageable
+  ) {
+    return applyCachedPagination(
+        "applyCachedPagination",
+        pageable,
+        memberSearchCondition.normalized(),
+        MemberTeamDto::copy,
+        contentQuery -> contentQuery
+            .select(new QMemberTeamDto(member.id, member.username, member.age, team.id, team.name))
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(usernameEq(memberSearchCondition.getUsername()),
+                teamNameEq(memberSearchCondition.getTeamName()),
+                ageGoe(memberSearchCondition.getAgeGoe()),
+                ageLoe(memberSearchCondition.getAgeLoe())),
+        countQuery -> countQuery
+            .selectFrom(member)
+            .leftJoin(member.team, team)
+            .where(usernameEq(memberSearchCondition.getUsername()),
+                teamNameEq(memberSearchCondition.getTeamName()),
+                ageGoe(memberSearchCondition.getAgeGoe()),
+                ageLoe(memberSearchCondition.getAgeLoe()))
+    );
+  }
+
+  // applyCachedPagination과 같은 조건을 받지만 username만 조회
+  public Page<String> applyCachedUsernamePagination(
+      MemberSearchCondition memberSearchCondition,
+      Pageable pageable
+  ) {
+    return applyCachedPagination(
+        "applyCachedUsernamePagination",
+        pageable,
+        memberSearchCondition.normalized(),
+        UnaryOperator.identity(),
+        contentQuery -> contentQuery
+            .select(member.username)
+            .from(member)
+            .leftJoin(member.team, team)
+            .where(usernameEq(memberSearchCondition.getUsername()),
+                teamNameEq(memberSearchCondition.getTeamName()),
+                ageGoe(memberSearchCondition.getAgeGoe()),
+                ageLoe(memberSearchCondition.getAgeLoe())),
+        countQuery -> countQuery
+            .selectFrom(member)
+            .leftJoin(member.team, team)
+            .where(usernameEq(memberSearchCondition.getUsername()),
+                teamNameEq(memberSearchCondition.getTeamName()),
+                ageGoe(memberSearchCondition.getAgeGoe()),
+                ageLoe(memberSearchCondition.getAgeLoe()))
+    );
+  }
+
+  public List<Member> basicSelectWithTeam() {
+    return selectFrom(member, Member.WITH_TEAM).fetch();
+  }
+
+  public Page<Member> applyPaginationWithTeam(
+      MemberSearchCondition memberSearchCondition,
+      Pageable pageable
+  ) {
+    return applyPagination(
+        pageable,
+        Member.WITH_TEAM,
+        contentQuery -> contentQuery
+            .selectFrom(member)
+            .where(usernameEq(memberSearchCondition.getUsername()),
+                ageGoe(memberSearchCondition.getAgeGoe()),
+                ageLoe(memberSearchCondition.getAgeLoe())),
+        countQuery -> countQuery
+            .selectFrom(member)
+            .where(usernameEq(memberSearchCondition.getUsername()),
+                ageGoe(memberSearchCondition.getAgeGoe()),
+                ageLoe(memberSearchCondition.getAgeLoe()))
+    );
+  }
+
   private BooleanExpression usernameEq(String username) {
     return hasText(username) ? member.username.eq(username) : null;
   }
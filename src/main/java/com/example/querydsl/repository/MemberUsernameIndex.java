@@ -0,0 +1,351 @@
+package com.example.querydsl.repository;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.repository.support.BulkChangeListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * username 부분 일치 검색용 메모리 trigram 인덱스
+ * username의 길이 3 부분 문자열마다 member id 목록(정렬된 long 배열)을 가지고 있다가,
+ * 검색어의 trigram 목록을 교집합해서 후보 id를 돌려준다. 최종 판정은 DB의 LIKE 조건으로 다시 한다.
+ * 3글자보다 짧은 검색어는 posting 없이 메모리의 username을 훑어 후보를 만든다.
+ *
+ * 메모리: member 한 명당 username 한 개와 (username 길이 - 2)개의 posting 항목(long 8바이트)을 쓴다.
+ * 예를 들어 평균 10글자 username 100만 명이면 posting id 약 64MB + username map이 필요하고,
+ * 다시 만드는 동안에는 새 인덱스를 옆에 만들므로 잠시 두 배가 된다.
+ *
+ * 후보가 실제 결과의 상위 집합인 것은 이 인스턴스의 엔티티 리스너를 거친 쓰기에 대해서만이다.
+ * - 쓰기는 flush 시점에 바로 반영하고, 이전 username의 trigram은 커밋된 뒤에 제거 (롤백되면 새 trigram만 제거)
+ * - 시작 후 처음 DB를 읽기 전에는 후보를 주지 않는다. (null -> LIKE 스캔)
+ * - 다시 읽을 때는 새 인덱스를 따로 만들어 한 번에 바꾸므로, 그동안에는 이전 인덱스로 후보를 준다.
+ *   그 사이의 쓰기는 두 인덱스 모두에 반영한다. (남는 id가 있어도 LIKE에서 걸러짐)
+ * - JPQL 벌크 update/delete는 리스너를 거치지 않으므로 ChunkedBulkOperations가 Member를 바꾸는 동안
+ *   인덱스를 쓰지 않고, 끝나면 DB에서 다시 만든다. 그 밖의 벌크 쿼리는 삭제만 안전하다. (남은 id는 LIKE에서 걸러짐)
+ * - 다른 애플리케이션 인스턴스의 쓰기는 보이지 않는다. querydsl.username-index.rebuild-interval마다 다시 만들기 전까지는
+ *   그 사이 다른 인스턴스가 추가/변경한 회원이 usernameContains 검색에서 빠질 수 있다.
+ */
+@Slf4j
+@Component
+public class MemberUsernameIndex implements BulkChangeListener {
+
+  private static final int GRAM = 3;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int maxCandidates;
+
+  // 후보를 주는 인덱스 (처음 DB를 읽기 전에는 null)
+  private volatile Snapshot current;
+  // 다시 만드는 중인 인덱스 (다시 만드는 중이 아니면 null)
+  private volatile Snapshot building;
+  // 커밋/롤백 전인 쓰기 (다시 만드는 동안 DB에서는 아직 보이지 않는 행)
+  private final Map<Long, String> pending = new ConcurrentHashMap<>();
+  private final AtomicInteger runningBulks = new AtomicInteger();
+
+  public MemberUsernameIndex(
+      JdbcTemplate jdbcTemplate,
+      @Value("${querydsl.username-index.max-candidates:1000}") int maxCandidates
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.maxCandidates = maxCandidates;
+  }
+
+  /*
+   * 리스너가 생기기 전부터 있던 행(파일 DB 등)과 리스너를 거치지 않은 변경(다른 인스턴스 등)을 DB에서 다시 읽는다.
+   * 새 인덱스를 다 만든 뒤에 바꾸므로 다시 읽는 동안에도 이전 인덱스로 후보를 준다.
+   * */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(
+      fixedDelayString = "${querydsl.username-index.rebuild-interval:PT5M}",
+      initialDelayString = "${querydsl.username-index.rebuild-interval:PT5M}"
+  )
+  public synchronized void rebuild() {
+    Snapshot next = new Snapshot();
+    // pending보다 먼저 공개해야 replay 이후의 쓰기가 next에도 들어간다.
+    building = next;
+    try {
+      pending.forEach(next::index);
+      jdbcTemplate.query(
+          "select member_id, username from member",
+          rs -> {
+            next.index(rs.getLong(1), rs.getString(2));
+          }
+      );
+      current = next;
+    } finally {
+      building = null;
+    }
+    log.info("username index loaded: {} members, {} grams", next.usernames.size(), next.postings.size());
+  }
+
+  // 후보를 줄 수 있는 상태인지 (DB를 읽었고 Member 벌크 연산이 진행 중이 아님)
+  public boolean isUsable() {
+    return current != null && runningBulks.get() == 0;
+  }
+
+  @Override
+  public void beforeBulk(Class<?> entityType) {
+    if (entityType == Member.class) {
+      runningBulks.incrementAndGet();
+    }
+  }
+
+  @Override
+  public void afterBulk(Class<?> entityType) {
+    if (entityType == Member.class) {
+      try {
+        rebuild();
+      } finally {
+        runningBulks.decrementAndGet();
+      }
+    }
+  }
+
+  /*
+   * fragment를 포함할 수 있는 member id 후보 (id 오름차순)
+   * null이면 인덱스로 좁힐 수 없다는 뜻(로딩 전이거나 후보가 너무 많음)이므로 LIKE 스캔으로 처리
+   * */
+  public List<Long> candidates(String fragment) {
+    Snapshot snapshot = current;
+    if (snapshot == null || runningBulks.get() != 0) {
+      return null;
+    }
+    if (fragment.length() < GRAM) {
+      return snapshot.scan(fragment, maxCandidates);
+    }
+
+    List<Posting> grams = new ArrayList<>();
+    for (int i = 0; i + GRAM <= fragment.length(); i++) {
+      Posting posting = snapshot.postings.get(fragment.substring(i, i + GRAM));
+      if (posting == null) {
+        return List.of();
+      }
+      grams.add(posting);
+    }
+    // 가장 작은 목록에서 시작해 나머지에 있는 id만 남긴다.
+    Posting smallest = grams.stream().min(Comparator.comparingInt(Posting::size)).orElseThrow();
+    long[] candidates = smallest.snapshot(Integer.MAX_VALUE);
+    int count = candidates.length;
+    for (int i = 0; i < grams.size() && count > 0; i++) {
+      if (grams.get(i) != smallest) {
+        count = grams.get(i).retain(candidates, count);
+      }
+    }
+    return count <= maxCandidates ? boxed(candidates, count) : null;
+  }
+
+  void onWrite(Long id, String username) {
+    if (username != null) {
+      pending.put(id, username);
+      afterCompletion(committed -> pending.remove(id, username));
+    }
+    for (Snapshot snapshot : targets()) {
+      String previous = snapshot.put(id, username);
+      if (Objects.equals(previous, username)) {
+        continue;
+      }
+      snapshot.index(id, username);
+      afterCompletion(committed -> {
+        if (committed) {
+          snapshot.unindex(id, previous, username);
+        } else {
+          snapshot.usernames.compute(id, (key, current) -> Objects.equals(current, username) ? previous : current);
+          snapshot.unindex(id, username, previous);
+        }
+      });
+    }
+  }
+
+  void onRemove(Long id) {
+    afterCompletion(committed -> {
+      if (committed) {
+        for (Snapshot snapshot : targets()) {
+          snapshot.unindex(id, snapshot.usernames.remove(id), null);
+        }
+      }
+    });
+  }
+
+  /*
+   * 쓰기를 반영할 인덱스 (다시 만드는 중이면 새 인덱스도)
+   * building을 먼저 읽어야 rebuild가 current를 바꾸고 building을 비우는 사이에도 새 인덱스를 놓치지 않는다.
+   * */
+  private List<Snapshot> targets() {
+    Snapshot next = building;
+    Snapshot snapshot = current;
+    List<Snapshot> targets = new ArrayList<>(2);
+    if (snapshot != null) {
+      targets.add(snapshot);
+    }
+    if (next != null && next != snapshot) {
+      targets.add(next);
+    }
+    return targets;
+  }
+
+  private static Set<String> grams(String username) {
+    Set<String> grams = new HashSet<>();
+    if (username == null) {
+      return grams;
+    }
+    for (int i = 0; i + GRAM <= username.length(); i++) {
+      grams.add(username.substring(i, i + GRAM));
+    }
+    return grams;
+  }
+
+  private static List<Long> boxed(long[] ids, int count) {
+    List<Long> boxed = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      boxed.add(ids[i]);
+    }
+    return boxed;
+  }
+
+  private static void afterCompletion(CompletionCallback callback) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      callback.completed(true);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        callback.completed(status == STATUS_COMMITTED);
+      }
+    });
+  }
+
+  @FunctionalInterface
+  private interface CompletionCallback {
+
+    void completed(boolean committed);
+
+  }
+
+  /**
+   * 한 번에 바꿔 끼우는 인덱스 (member id -> username, trigram -> posting)
+   */
+  private static final class Snapshot {
+
+    private final Map<Long, String> usernames = new ConcurrentHashMap<>();
+    private final Map<String, Posting> postings = new ConcurrentHashMap<>();
+
+    // 이전 username (username이 null이면 항목을 지운다.)
+    String put(Long id, String username) {
+      return username != null ? usernames.put(id, username) : usernames.remove(id);
+    }
+
+    void index(Long id, String username) {
+      if (username == null) {
+        return;
+      }
+      usernames.putIfAbsent(id, username);
+      for (String gram : grams(username)) {
+        // 비어서 제거되는 posting에 추가하지 않도록 같은 키의 제거와 직렬화
+        postings.compute(gram, (key, posting) -> {
+          Posting target = posting != null ? posting : new Posting();
+          target.add(id);
+          return target;
+        });
+      }
+    }
+
+    // removed의 trigram 중 kept에도 있는 것은 남긴다.
+    void unindex(Long id, String removed, String kept) {
+      Set<String> grams = grams(removed);
+      grams.removeAll(grams(kept));
+      for (String gram : grams) {
+        postings.computeIfPresent(gram, (key, posting) -> posting.remove(id) ? null : posting);
+      }
+    }
+
+    // trigram이 없는 짧은 검색어: username을 직접 훑는다. limit보다 많으면 null
+    List<Long> scan(String fragment, int limit) {
+      List<Long> ids = new ArrayList<>();
+      for (Map.Entry<Long, String> entry : usernames.entrySet()) {
+        if (entry.getValue().contains(fragment)) {
+          if (ids.size() == limit) {
+            return null;
+          }
+          ids.add(entry.getKey());
+        }
+      }
+      ids.sort(null);
+      return ids;
+    }
+
+  }
+
+  /**
+   * 한 trigram을 포함하는 member id 목록 (오름차순 long 배열)
+   * id는 시퀀스로 늘어나므로 추가는 대부분 배열 끝에 붙는다.
+   */
+  private static final class Posting {
+
+    private long[] ids = new long[4];
+    private int size;
+
+    synchronized int size() {
+      return size;
+    }
+
+    synchronized void add(long id) {
+      int at = Arrays.binarySearch(ids, 0, size, id);
+      if (at >= 0) {
+        return;
+      }
+      int insertAt = -at - 1;
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+      ids[insertAt] = id;
+      size++;
+    }
+
+    // 제거 후 비었으면 true
+    synchronized boolean remove(long id) {
+      int at = Arrays.binarySearch(ids, 0, size, id);
+      if (at >= 0) {
+        System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+        size--;
+      }
+      return size == 0;
+    }
+
+    // limit보다 많으면 null
+    synchronized long[] snapshot(int limit) {
+      return size <= limit ? Arrays.copyOf(ids, size) : null;
+    }
+
+    // candidates[0, count) 중 이 posting에도 있는 id만 앞으로 모으고 그 개수를 돌려준다.
+    synchronized int retain(long[] candidates, int count) {
+      int kept = 0;
+      for (int i = 0; i < count; i++) {
+        if (Arrays.binarySearch(ids, 0, size, candidates[i]) >= 0) {
+          candidates[kept++] = candidates[i];
+        }
+      }
+      return kept;
+    }
+
+  }
+
+}
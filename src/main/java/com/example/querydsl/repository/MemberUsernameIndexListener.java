@@ -0,0 +1,31 @@
+package com.example.querydsl.repository;
+
+import com.example.querydsl.entity.Member;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Member 쓰기를 MemberUsernameIndex에 반영하는 엔티티 리스너
+ * 콜백은 flush 시점에 호출되므로, 인덱스를 조회하기 전에 보류 중인 변경을 flush 해야 한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberUsernameIndexListener {
+
+  private final MemberUsernameIndex memberUsernameIndex;
+
+  @PostPersist
+  @PostUpdate
+  void onWrite(Member member) {
+    memberUsernameIndex.onWrite(member.getId(), member.getUsername());
+  }
+
+  @PostRemove
+  void onRemove(Member member) {
+    memberUsernameIndex.onRemove(member.getId());
+  }
+
+}
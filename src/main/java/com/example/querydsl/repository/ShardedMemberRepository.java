@@ -0,0 +1,411 @@
+package com.example.querydsl.repository;
+
+import static org.springframework.util.StringUtils.hasText;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.sql.DataSource;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * team_id 기준으로 여러 DB(shard)에 나눠 저장한 member 검색 (scatter-gather)
+ * - 같은 팀의 member와 team 행은 같은 shard에 있으므로 team join은 shard 안에서 끝난다.
+ * - 팀이 없는 member는 member_id 해시로 shard를 정한다.
+ * - 검색은 모든 shard를 가상 스레드로 동시에 조회하고, 페이지는 shard별 정렬 결과를 k-way merge 한다.
+ * 검색 조건은 MemberRepositoryCustomImpl.search와 같다.
+ */
+public class ShardedMemberRepository implements AutoCloseable {
+
+  private static final String SELECT_SQL = """
+      select m.member_id, m.username, m.age, t.team_id, t.name
+      from member m
+      left join team t on t.team_id = m.team_id
+      """;
+
+  private static final String COUNT_SQL = """
+      select count(*)
+      from member m
+      left join team t on t.team_id = m.team_id
+      """;
+
+  private static final String INSERT_TEAM_SQL = """
+      insert into team (team_id, name)
+      select ?, ? where not exists (select 1 from team where team_id = ?)
+      """;
+
+  private static final String INSERT_MEMBER_SQL =
+      "insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)";
+
+  // Pageable의 정렬 속성(MemberTeamDto 필드) -> 컬럼
+  private static final Map<String, String> SORT_COLUMNS = Map.of(
+      "memberId", "m.member_id",
+      "username", "m.username",
+      "age", "m.age",
+      "teamId", "t.team_id",
+      "teamName", "t.name"
+  );
+
+  private static final Map<String, Function<MemberTeamDto, Comparable<?>>> SORT_KEYS = Map.of(
+      "memberId", MemberTeamDto::getMemberId,
+      "username", MemberTeamDto::getUsername,
+      "age", MemberTeamDto::getAge,
+      "teamId", MemberTeamDto::getTeamId,
+      "teamName", MemberTeamDto::getTeamName
+  );
+
+  private static final Comparator<MemberTeamDto> BY_MEMBER_ID = Comparator.comparing(MemberTeamDto::getMemberId);
+
+  private static final RowMapper<MemberTeamDto> ROW_MAPPER = ShardedMemberRepository::mapRow;
+
+  // id/username in 조회의 chunk 크기 (파라미터 개수 제한)
+  private static final int IN_CHUNK_SIZE = 512;
+
+  private final List<DataSource> dataSources;
+  private final List<JdbcTemplate> shards;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  public ShardedMemberRepository(List<DataSource> dataSources) {
+    this.dataSources = List.copyOf(dataSources);
+    this.shards = this.dataSources.stream().map(JdbcTemplate::new).toList();
+  }
+
+  public int shardCount() {
+    return shards.size();
+  }
+
+  // 팀이 있으면 team_id, 없으면 member_id의 해시로 shard 번호를 정한다.
+  public int shardOf(Long teamId, Long memberId) {
+    long key = teamId != null ? teamId : memberId;
+    return Math.floorMod(Long.hashCode(key), shards.size());
+  }
+
+  /*
+   * member(와 소속 team)를 shard에 저장
+   * team 행은 shard마다 없을 때만 넣고, member는 shard별 batch insert
+   * */
+  public void saveAll(List<MemberTeamDto> rows) {
+    Map<Integer, Map<Long, String>> teamsByShard = new HashMap<>();
+    Map<Integer, List<Object[]>> membersByShard = new HashMap<>();
+    for (MemberTeamDto row : rows) {
+      int shard = shardOf(row.getTeamId(), row.getMemberId());
+      if (row.getTeamId() != null) {
+        teamsByShard.computeIfAbsent(shard, s -> new LinkedHashMap<>()).put(row.getTeamId(), row.getTeamName());
+      }
+      membersByShard.computeIfAbsent(shard, s -> new ArrayList<>())
+          .add(new Object[]{row.getMemberId(), row.getUsername(), row.getAge(), row.getTeamId()});
+    }
+
+    teamsByShard.forEach((shard, teams) -> shards.get(shard).batchUpdate(
+        INSERT_TEAM_SQL,
+        teams.entrySet().stream()
+            .map(team -> new Object[]{team.getKey(), team.getValue(), team.getKey()})
+            .toList()
+    ));
+    membersByShard.forEach((shard, members) -> shards.get(shard).batchUpdate(INSERT_MEMBER_SQL, members));
+  }
+
+  // 모든 shard의 검색 결과를 member_id 순으로 합친다.
+  public List<MemberTeamDto> search(MemberSearchCondition memberSearchCondition) {
+    Where where = where(memberSearchCondition);
+    String sql = SELECT_SQL + where.sql() + " order by m.member_id";
+    List<List<MemberTeamDto>> results = scatter(shard -> shard.query(sql, ROW_MAPPER, where.args()));
+    return merge(results, BY_MEMBER_ID, 0, Integer.MAX_VALUE);
+  }
+
+  /*
+   * shard마다 같은 정렬로 앞에서부터 offset + size 건을 읽고 k-way merge로 offset을 건너뛴 뒤 size 건을 취한다.
+   * total은 shard별 count의 합. 정렬이 같으면 member_id 순으로 tie-break 하므로 페이지 간 결과가 겹치지 않는다.
+   * 깊은 페이지는 shard마다 offset + size 건을 읽어야 하므로 깊이 넘기는 화면은 keyset(searchSlice)을 쓴다.
+   * */
+  public Page<MemberTeamDto> searchPageComplex(MemberSearchCondition memberSearchCondition, Pageable pageable) {
+    Where where = where(memberSearchCondition);
+    long window = pageable.getOffset() + pageable.getPageSize();
+    String sql = SELECT_SQL + where.sql() + orderBy(pageable.getSort()) + " limit " + window;
+    String countSql = COUNT_SQL + where.sql();
+
+    List<Future<Long>> counts = shards.stream()
+        .map(shard -> executor.submit(() -> shard.queryForObject(countSql, Long.class, where.args())))
+        .toList();
+    List<List<MemberTeamDto>> results = scatter(shard -> shard.query(sql, ROW_MAPPER, where.args()));
+
+    List<MemberTeamDto> content = merge(
+        results,
+        comparator(pageable.getSort()),
+        pageable.getOffset(),
+        pageable.getPageSize()
+    );
+    long total = 0;
+    for (Future<Long> count : counts) {
+      total += await(count);
+    }
+    long sum = total;
+    return PageableExecutionUtils.getPage(content, pageable, () -> sum);
+  }
+
+  /*
+   * keyset 페이징: shard마다 lastMemberId 이후 size + 1건을 member_id 순으로 읽고 합쳐서 앞의 size + 1건을 본다.
+   * offset이 없으므로 깊은 페이지도 shard마다 size + 1건만 읽는다.
+   * */
+  public Slice<MemberTeamDto> searchSlice(
+      MemberSearchCondition memberSearchCondition,
+      Long lastMemberId,
+      int size
+  ) {
+    Where where = where(memberSearchCondition, lastMemberId);
+    long window = size + 1L;
+    String sql = SELECT_SQL + where.sql() + " order by m.member_id limit " + window;
+    List<List<MemberTeamDto>> results = scatter(shard -> shard.query(sql, ROW_MAPPER, where.args()));
+
+    List<MemberTeamDto> content = merge(results, BY_MEMBER_ID, 0, (int) Math.min(window, Integer.MAX_VALUE));
+    boolean hasNext = content.size() > size;
+    if (hasNext) {
+      content = content.subList(0, size);
+    }
+    return new SliceImpl<>(content, PageRequest.ofSize(size), hasNext);
+  }
+
+  // member는 team_id로 나뉘어 있어 id/username만으로는 shard를 알 수 없으므로 모든 shard에서 찾는다. (member_id 순)
+  public List<MemberTeamDto> findAllByIds(Collection<Long> memberIds) {
+    return findAllIn("m.member_id", memberIds);
+  }
+
+  public List<MemberTeamDto> findAllByUsernames(Collection<String> usernames) {
+    return findAllIn("m.username", usernames);
+  }
+
+  /*
+   * 결과를 모으지 않고 shard 순서대로 한 건씩 넘긴다. (shard 안에서는 member_id 순)
+   * 행의 컬럼 순서는 member_id, username, age, team_id, team name
+   * */
+  public void query(MemberSearchCondition memberSearchCondition, int fetchSize, RowCallbackHandler handler) {
+    Where where = where(memberSearchCondition);
+    String sql = SELECT_SQL + where.sql() + " order by m.member_id";
+    for (DataSource dataSource : dataSources) {
+      JdbcTemplate shard = new JdbcTemplate(dataSource);
+      shard.setFetchSize(fetchSize);
+      shard.query(sql, handler, where.args());
+    }
+  }
+
+  public void forEach(MemberSearchCondition memberSearchCondition, int fetchSize, Consumer<MemberTeamDto> action) {
+    query(memberSearchCondition, fetchSize, resultSet -> {
+      action.accept(mapRow(resultSet, 0));
+    });
+  }
+
+  // 같은 SQL을 shard마다 순서대로 실행 (팀 통계처럼 shard별 결과를 호출하는 쪽에서 합치는 집계)
+  public void queryEachShard(String sql, RowCallbackHandler handler) {
+    for (JdbcTemplate shard : shards) {
+      shard.query(sql, handler);
+    }
+  }
+
+  // @Bean으로 등록하면 컨텍스트 종료 시 호출된다 (shard 커넥션 풀 정리)
+  @Override
+  public void close() throws Exception {
+    executor.close();
+    for (DataSource dataSource : dataSources) {
+      if (dataSource instanceof AutoCloseable closeable) {
+        closeable.close();
+      }
+    }
+  }
+
+  private List<MemberTeamDto> findAllIn(String column, Collection<?> keys) {
+    List<?> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+    List<MemberTeamDto> rows = new ArrayList<>();
+    for (int from = 0; from < distinct.size(); from += IN_CHUNK_SIZE) {
+      List<?> chunk = distinct.subList(from, Math.min(from + IN_CHUNK_SIZE, distinct.size()));
+      String sql = SELECT_SQL + "where " + column + " in ("
+          + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+      Object[] args = chunk.toArray();
+      scatter(shard -> shard.query(sql, ROW_MAPPER, args)).forEach(rows::addAll);
+    }
+    rows.sort(BY_MEMBER_ID);
+    return rows;
+  }
+
+  private <T> List<T> scatter(Function<JdbcTemplate, T> query) {
+    List<Future<T>> futures = shards.stream()
+        .map(shard -> executor.submit(() -> query.apply(shard)))
+        .toList();
+    List<T> results = new ArrayList<>(futures.size());
+    for (Future<T> future : futures) {
+      results.add(await(future));
+    }
+    return results;
+  }
+
+  private static <T> T await(Future<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DataAccessResourceFailureException("interrupted while querying shards", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new DataAccessResourceFailureException("shard query failed", e.getCause());
+    }
+  }
+
+  /*
+   * 각 shard 결과(이미 comparator 순으로 정렬됨)의 머리만 힙에 두고 하나씩 꺼낸다.
+   * 필요한 offset + limit 건만 비교하므로 shard 수가 k일 때 건당 O(log k)
+   * */
+  static List<MemberTeamDto> merge(
+      List<List<MemberTeamDto>> sortedRuns,
+      Comparator<MemberTeamDto> comparator,
+      long offset,
+      int limit
+  ) {
+    record Cursor(List<MemberTeamDto> run, int index) {
+
+      MemberTeamDto head() {
+        return run.get(index);
+      }
+    }
+
+    PriorityQueue<Cursor> heap = new PriorityQueue<>(
+        Math.max(1, sortedRuns.size()),
+        Comparator.comparing(Cursor::head, comparator)
+    );
+    for (List<MemberTeamDto> run : sortedRuns) {
+      if (!run.isEmpty()) {
+        heap.add(new Cursor(run, 0));
+      }
+    }
+
+    List<MemberTeamDto> merged = new ArrayList<>();
+    long skipped = 0;
+    while (!heap.isEmpty() && merged.size() < limit) {
+      Cursor cursor = heap.poll();
+      if (skipped < offset) {
+        skipped++;
+      } else {
+        merged.add(cursor.head());
+      }
+      if (cursor.index() + 1 < cursor.run().size()) {
+        heap.add(new Cursor(cursor.run(), cursor.index() + 1));
+      }
+    }
+    return merged;
+  }
+
+  // DB의 정렬과 merge 비교가 같도록 null 위치를 명시 (asc는 nulls first, desc는 nulls last)
+  private static String orderBy(Sort sort) {
+    List<String> columns = new ArrayList<>();
+    for (Sort.Order order : sort) {
+      String column = SORT_COLUMNS.get(order.getProperty());
+      if (column == null) {
+        throw new IllegalArgumentException("unsupported sort property: " + order.getProperty());
+      }
+      columns.add(column + (order.isAscending() ? " asc nulls first" : " desc nulls last"));
+    }
+    columns.add("m.member_id asc");
+    return " order by " + String.join(", ", columns);
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  static Comparator<MemberTeamDto> comparator(Sort sort) {
+    Comparator<MemberTeamDto> comparator = (a, b) -> 0;
+    for (Sort.Order order : sort) {
+      Function<MemberTeamDto, Comparable<?>> key = SORT_KEYS.get(order.getProperty());
+      if (key == null) {
+        throw new IllegalArgumentException("unsupported sort property: " + order.getProperty());
+      }
+      Comparator<Comparable> nullsFirst = Comparator.nullsFirst(Comparator.naturalOrder());
+      Comparator<MemberTeamDto> byKey = Comparator.comparing(row -> (Comparable) key.apply(row), nullsFirst);
+      comparator = comparator.thenComparing(order.isAscending() ? byKey : byKey.reversed());
+    }
+    return comparator.thenComparing(MemberTeamDto::getMemberId);
+  }
+
+  private static Where where(MemberSearchCondition memberSearchCondition) {
+    return where(memberSearchCondition, null);
+  }
+
+  private static Where where(MemberSearchCondition memberSearchCondition, Long afterMemberId) {
+    List<String> where = new ArrayList<>();
+    List<Object> args = new ArrayList<>();
+    if (afterMemberId != null) {
+      where.add("m.member_id > ?");
+      args.add(afterMemberId);
+    }
+    if (hasText(memberSearchCondition.getUsername())) {
+      where.add("m.username = ?");
+      args.add(memberSearchCondition.getUsername());
+    }
+    if (hasText(memberSearchCondition.getUsernamePrefix())) {
+      where.add("m.username like ? escape '!'");
+      args.add(escapeLike(memberSearchCondition.getUsernamePrefix()) + "%");
+    }
+    if (hasText(memberSearchCondition.getUsernameContains())) {
+      where.add("m.username like ? escape '!'");
+      args.add("%" + escapeLike(memberSearchCondition.getUsernameContains()) + "%");
+    }
+    if (hasText(memberSearchCondition.getTeamName())) {
+      where.add("t.name = ?");
+      args.add(memberSearchCondition.getTeamName());
+    }
+    if (memberSearchCondition.getAgeGoe() != null) {
+      where.add("m.age >= ?");
+      args.add(memberSearchCondition.getAgeGoe());
+    }
+    if (memberSearchCondition.getAgeLoe() != null) {
+      where.add("m.age <= ?");
+      args.add(memberSearchCondition.getAgeLoe());
+    }
+    String sql = where.isEmpty() ? "" : "where " + String.join(" and ", where);
+    return new Where(sql, args.toArray());
+  }
+
+  static String escapeLike(String value) {
+    return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+  }
+
+  private static MemberTeamDto mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+    long teamId = resultSet.getLong(4);
+    boolean noTeam = resultSet.wasNull();
+    return new MemberTeamDto(
+        resultSet.getLong(1),
+        resultSet.getString(2),
+        resultSet.getInt(3),
+        noTeam ? null : teamId,
+        resultSet.getString(5)
+    );
+  }
+
+  private record Where(String sql, Object[] args) {
+  }
+
+}
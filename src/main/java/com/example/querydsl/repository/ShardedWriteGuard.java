@@ -0,0 +1,57 @@
+package com.example.querydsl.repository;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.repository.support.BulkChangeListener;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreRemove;
+import jakarta.persistence.PreUpdate;
+import java.util.Optional;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * sharding이 켜져 있으면 Member/Team을 JPA로 쓰지 못하게 막는다.
+ * shard는 JDBC로만 접근하므로 JPA 쓰기는 primary DB에만 들어가고 shard 검색에는 보이지 않는다.
+ * - 엔티티 persist/update/remove: flush 전에 엔티티 리스너에서 실패
+ * - ChunkedBulkOperations의 벌크 update/delete: 다른 BulkChangeListener보다 먼저 호출되어 첫 쿼리 전에 실패
+ * shard 쓰기는 ShardedMemberRepository.saveAll을 사용한다.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ShardedWriteGuard implements BulkChangeListener {
+
+  private final boolean sharded;
+
+  public ShardedWriteGuard(Optional<ShardedMemberRepository> shardedMemberRepository) {
+    this.sharded = shardedMemberRepository.isPresent();
+  }
+
+  @PrePersist
+  @PreUpdate
+  @PreRemove
+  void onWrite(Object entity) {
+    check(entity.getClass());
+  }
+
+  @Override
+  public void beforeBulk(Class<?> entityType) {
+    if (entityType == Member.class || entityType == Team.class) {
+      check(entityType);
+    }
+  }
+
+  @Override
+  public void afterBulk(Class<?> entityType) {
+  }
+
+  private void check(Class<?> entityType) {
+    if (sharded) {
+      throw new IllegalStateException(
+          entityType.getSimpleName() + " is sharded (querydsl.sharding.enabled=true); "
+              + "write through ShardedMemberRepository instead of JPA");
+    }
+  }
+
+}
@@ -0,0 +1,16 @@
+package com.example.querydsl.repository;
+
+import com.example.querydsl.entity.Team;
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+public interface TeamRepository extends JpaRepository<Team, Long> {
+
+  // cache 프로필에서는 쿼리 캐시 + Team 2차 캐시로 DB를 거치지 않음
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+  List<Team> findByName(String name);
+
+}
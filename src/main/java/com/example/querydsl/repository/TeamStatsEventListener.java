@@ -0,0 +1,143 @@
+package com.example.querydsl.repository;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.springframework.stereotype.Component;
+
+/**
+ * 커밋된 Member/Team 변경을 TeamStatsRepository에 반영하는 Hibernate post-commit 리스너
+ * JPA @EntityListeners는 변경 전 상태(이전 팀, 이전 나이)를 알 수 없고 롤백도 구분하지 못하므로
+ * 이전 상태와 커밋 여부를 함께 주는 Hibernate 이벤트를 사용한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TeamStatsEventListener implements
+    PostCommitInsertEventListener,
+    PostCommitUpdateEventListener,
+    PostCommitDeleteEventListener {
+
+  private final EntityManagerFactory entityManagerFactory;
+  private final TeamStatsRepository teamStatsRepository;
+
+  @PostConstruct
+  void register() {
+    EventListenerRegistry registry = entityManagerFactory
+        .unwrap(SessionFactoryImplementor.class)
+        .getServiceRegistry()
+        .getService(EventListenerRegistry.class);
+    registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+    registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+    registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+  }
+
+  @Override
+  public boolean requiresPostCommitHandling(EntityPersister persister) {
+    Class<?> mappedClass = persister.getMappedClass();
+    return mappedClass == Member.class || mappedClass == Team.class;
+  }
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    EntityPersister persister = event.getPersister();
+    if (event.getEntity() instanceof Member) {
+      teamStatsRepository.memberAdded(
+          teamId(event.getState(), persister),
+          age(event.getState(), persister)
+      );
+    } else if (event.getEntity() instanceof Team team) {
+      teamStatsRepository.teamSaved(team.getId(), name(event.getState(), persister));
+    }
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    EntityPersister persister = event.getPersister();
+    Object[] oldState = event.getOldState();
+    if (oldState == null) {
+      // 분리된 엔티티를 바로 update 한 경우 등: 다음 reconcile에서 맞춰진다.
+      log.debug("no previous state for {}#{}", persister.getEntityName(), event.getId());
+      return;
+    }
+
+    if (event.getEntity() instanceof Member) {
+      Long oldTeamId = teamId(oldState, persister);
+      Long newTeamId = teamId(event.getState(), persister);
+      int oldAge = age(oldState, persister);
+      int newAge = age(event.getState(), persister);
+      if (!Objects.equals(oldTeamId, newTeamId) || oldAge != newAge) {
+        teamStatsRepository.memberRemoved(oldTeamId, oldAge);
+        teamStatsRepository.memberAdded(newTeamId, newAge);
+      }
+    } else if (event.getEntity() instanceof Team team) {
+      teamStatsRepository.teamSaved(team.getId(), name(event.getState(), persister));
+    }
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    EntityPersister persister = event.getPersister();
+    if (event.getEntity() instanceof Member) {
+      teamStatsRepository.memberRemoved(
+          teamId(event.getDeletedState(), persister),
+          age(event.getDeletedState(), persister)
+      );
+    } else if (event.getEntity() instanceof Team team) {
+      teamStatsRepository.teamRemoved(team.getId());
+    }
+  }
+
+  // 커밋되지 않은 변경은 반영하지 않았으므로 되돌릴 것도 없다.
+  @Override
+  public void onPostInsertCommitFailed(PostInsertEvent event) {
+  }
+
+  @Override
+  public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+  }
+
+  @Override
+  public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+  }
+
+  private static Long teamId(Object[] state, EntityPersister persister) {
+    Object team = state[propertyIndex(persister, "team")];
+    if (team == null) {
+      return null;
+    }
+    // 초기화되지 않은 프록시는 세션 없이 식별자만 꺼낸다.
+    LazyInitializer lazyInitializer = HibernateProxy.extractLazyInitializer(team);
+    return lazyInitializer != null ? (Long) lazyInitializer.getIdentifier() : ((Team) team).getId();
+  }
+
+  private static int age(Object[] state, EntityPersister persister) {
+    return (Integer) state[propertyIndex(persister, "age")];
+  }
+
+  private static String name(Object[] state, EntityPersister persister) {
+    return (String) state[propertyIndex(persister, "name")];
+  }
+
+  private static int propertyIndex(EntityPersister persister, String propertyName) {
+    return Arrays.asList(persister.getPropertyNames()).indexOf(propertyName);
+  }
+
+}
@@ -0,0 +1,178 @@
+package com.example.querydsl.repository;
+
+import com.example.querydsl.dto.TeamStatsDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 팀별 회원 통계를 메모리에 유지해서 groupBy(member.team) 스캔 없이 O(팀 수)로 조회
+ * - TeamStatsEventListener가 커밋된 Member/Team 변경을 증분 반영
+ * - min/max는 삭제에도 맞출 수 있도록 팀마다 나이별 회원 수(히스토그램)를 유지
+ * - JPQL 벌크 연산처럼 이벤트를 거치지 않는 변경은 주기적인 reconcile()로 DB와 다시 맞춘다.
+ * - sharding이 켜져 있으면 reconcile()은 shard마다 읽어 합친다. (팀과 그 팀의 member는 같은 shard에 있음)
+ *   shard 쓰기(ShardedMemberRepository.saveAll)는 이벤트를 거치지 않으므로 다음 reconcile까지 반영되지 않는다.
+ */
+@Slf4j
+@Repository
+public class TeamStatsRepository {
+
+  private final JdbcTemplate jdbcTemplate;
+  private final Optional<ShardedMemberRepository> shardedMemberRepository;
+  private final Counter driftCounter;
+  private final Map<Long, TeamAggregate> teams = new ConcurrentHashMap<>();
+
+  public TeamStatsRepository(
+      JdbcTemplate jdbcTemplate,
+      Optional<ShardedMemberRepository> shardedMemberRepository,
+      MeterRegistry meterRegistry
+  ) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.shardedMemberRepository = shardedMemberRepository;
+    this.driftCounter = Counter.builder("repository.team-stats.drift")
+        .description("Teams whose in-memory stats differed from the database on reconcile")
+        .register(meterRegistry);
+  }
+
+  public List<TeamStatsDto> findAll() {
+    return teams.entrySet().stream()
+        .map(entry -> entry.getValue().toDto(entry.getKey()))
+        .sorted(Comparator.comparing(TeamStatsDto::teamId))
+        .toList();
+  }
+
+  public Optional<TeamStatsDto> findByTeamId(Long teamId) {
+    return Optional.ofNullable(teams.get(teamId))
+        .map(aggregate -> aggregate.toDto(teamId));
+  }
+
+  /*
+   * DB에서 팀 목록과 (팀, 나이)별 회원 수를 읽어 메모리 통계를 교체
+   * 읽는 도중 커밋된 변경은 어긋날 수 있지만 다음 reconcile에서 다시 맞춰진다.
+   * */
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(
+      fixedDelayString = "${querydsl.team-stats.reconcile-interval:PT5M}",
+      initialDelayString = "${querydsl.team-stats.reconcile-interval:PT5M}"
+  )
+  public void reconcile() {
+    Map<Long, TeamAggregate> loaded = new HashMap<>();
+    query(
+        "select team_id, name from team",
+        rs -> {
+          loaded.put(rs.getLong(1), new TeamAggregate(rs.getString(2)));
+        }
+    );
+    query(
+        "select team_id, age, count(*) from member where team_id is not null group by team_id, age",
+        rs -> {
+          TeamAggregate aggregate = loaded.get(rs.getLong(1));
+          if (aggregate != null) {
+            aggregate.add(rs.getInt(2), rs.getLong(3));
+          }
+        }
+    );
+
+    int drifted = 0;
+    for (Map.Entry<Long, TeamAggregate> entry : loaded.entrySet()) {
+      TeamAggregate previous = teams.put(entry.getKey(), entry.getValue());
+      if (previous == null
+          || !Objects.equals(previous.toDto(entry.getKey()), entry.getValue().toDto(entry.getKey()))) {
+        drifted++;
+      }
+    }
+    for (Long teamId : teams.keySet()) {
+      if (!loaded.containsKey(teamId)) {
+        teams.remove(teamId);
+        drifted++;
+      }
+    }
+
+    driftCounter.increment(drifted);
+    log.debug("team stats reconciled: {} teams, {} drifted", loaded.size(), drifted);
+  }
+
+  private void query(String sql, RowCallbackHandler handler) {
+    if (shardedMemberRepository.isPresent()) {
+      shardedMemberRepository.get().queryEachShard(sql, handler);
+    } else {
+      jdbcTemplate.query(sql, handler);
+    }
+  }
+
+  void teamSaved(Long teamId, String name) {
+    aggregate(teamId).rename(name);
+  }
+
+  void teamRemoved(Long teamId) {
+    teams.remove(teamId);
+  }
+
+  void memberAdded(Long teamId, int age) {
+    if (teamId != null) {
+      aggregate(teamId).add(age, 1);
+    }
+  }
+
+  void memberRemoved(Long teamId, int age) {
+    if (teamId != null) {
+      aggregate(teamId).add(age, -1);
+    }
+  }
+
+  private TeamAggregate aggregate(Long teamId) {
+    return teams.computeIfAbsent(teamId, key -> new TeamAggregate(null));
+  }
+
+  private static final class TeamAggregate {
+
+    private String name;
+    private long count;
+    private long sum;
+    private final TreeMap<Integer, Long> ages = new TreeMap<>();
+
+    private TeamAggregate(String name) {
+      this.name = name;
+    }
+
+    synchronized void rename(String name) {
+      this.name = name;
+    }
+
+    synchronized void add(int age, long delta) {
+      count += delta;
+      sum += age * delta;
+      ages.merge(age, delta, (current, added) -> current + added == 0 ? null : current + added);
+    }
+
+    synchronized TeamStatsDto toDto(Long teamId) {
+      if (count <= 0) {
+        return new TeamStatsDto(teamId, name, 0, null, null, null);
+      }
+      return new TeamStatsDto(
+          teamId,
+          name,
+          count,
+          (double) sum / count,
+          ages.firstKey(),
+          ages.lastKey()
+      );
+    }
+
+  }
+
+}
@@ -0,0 +1,89 @@
+package com.example.querydsl.repository.support;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.BiFunction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * 많은 키를 in (...) 조건으로 조회할 때 chunk로 나누고, chunk 크기를 2의 거듭제곱으로 패딩한다.
+ * in 절의 파라미터 개수가 몇 가지(1, 2, 4, ... chunkSize)로 고정되므로
+ * 키 개수가 매번 달라도 같은 SQL과 실행 계획을 재사용한다. 패딩은 마지막 키를 반복해서 채운다.
+ *
+ * - chunk가 여러 개이면 {@link ReadOnlyQueryExecutor}로 동시에 조회
+ *   (chunk마다 별도 읽기 전용 트랜잭션이므로 DTO 조회에만 사용한다. 추가 커넥션 허가를 얻지 못한 chunk는 호출 스레드에서 조회)
+ * - 호출자가 트랜잭션 안에 있으면 커밋되지 않은 변경도 보이도록 호출자의 EntityManager로 순서대로 조회
+ */
+@Component
+public class BatchLookup {
+
+  private final ReadOnlyQueryExecutor readOnlyQueryExecutor;
+  private final JPAQueryFactory queryFactory;
+  private final int chunkSize;
+
+  public BatchLookup(
+      ReadOnlyQueryExecutor readOnlyQueryExecutor,
+      EntityManager entityManager,
+      @Value("${querydsl.batch-lookup.chunk-size:512}") int chunkSize
+  ) {
+    Assert.isTrue(Integer.bitCount(chunkSize) == 1, "Chunk size must be a power of two");
+    this.readOnlyQueryExecutor = readOnlyQueryExecutor;
+    this.queryFactory = new JPAQueryFactory(entityManager);
+    this.chunkSize = chunkSize;
+  }
+
+  /*
+   * query: (queryFactory, 패딩된 키 chunk) -> 결과
+   * 결과 순서는 chunk 순서를 따르며 키 순서와는 무관하다.
+   * */
+  public <K, R> List<R> lookup(
+      Collection<K> keys,
+      BiFunction<JPAQueryFactory, List<K>, List<R>> query
+  ) {
+    List<List<K>> chunks = chunks(keys);
+    if (chunks.isEmpty()) {
+      return List.of();
+    }
+    if (chunks.size() == 1 || TransactionSynchronizationManager.isActualTransactionActive()) {
+      List<R> results = new ArrayList<>();
+      for (List<K> chunk : chunks) {
+        results.addAll(query.apply(queryFactory, chunk));
+      }
+      return results;
+    }
+
+    List<ReadOnlyQueryExecutor.Pending<List<R>>> pending = new ArrayList<>(chunks.size());
+    for (List<K> chunk : chunks) {
+      pending.add(readOnlyQueryExecutor.submit(() -> query.apply(queryFactory, chunk)));
+    }
+    List<R> results = new ArrayList<>();
+    for (ReadOnlyQueryExecutor.Pending<List<R>> chunkResult : pending) {
+      results.addAll(chunkResult.get());
+    }
+    return results;
+  }
+
+  // 중복을 제거한 키를 chunkSize씩 나누고 각 chunk를 2의 거듭제곱 크기로 패딩
+  <K> List<List<K>> chunks(Collection<K> keys) {
+    List<K> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+    List<List<K>> chunks = new ArrayList<>();
+    for (int from = 0; from < distinct.size(); from += chunkSize) {
+      List<K> chunk = new ArrayList<>(distinct.subList(from, Math.min(from + chunkSize, distinct.size())));
+      K last = chunk.get(chunk.size() - 1);
+      int padded = Integer.highestOneBit(chunk.size() - 1) << 1;
+      while (chunk.size() < padded) {
+        chunk.add(last);
+      }
+      chunks.add(chunk);
+    }
+    return chunks;
+  }
+
+}
@@ -0,0 +1,15 @@
+package com.example.querydsl.repository.support;
+
+/**
+ * {@link ChunkedBulkOperations}의 JPQL 벌크 update/delete는 엔티티 리스너와 Hibernate 이벤트를 거치지 않으므로,
+ * 엔티티 상태를 메모리에 따로 들고 있는 컴포넌트는 이 콜백으로 벌크 변경을 알아챈다.
+ */
+public interface BulkChangeListener {
+
+  // 대상 id 범위를 조회하기 전 (예외를 던지면 벌크 연산을 실행하지 않음)
+  void beforeBulk(Class<?> entityType);
+
+  // 마지막 chunk 이후 (중간에 실패해도 호출)
+  void afterBulk(Class<?> entityType);
+
+}
@@ -0,0 +1,199 @@
+package com.example.querydsl.repository.support;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.jpa.impl.JPAUpdateClause;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * 대량 update/delete를 id 범위 chunk로 나눠 chunk마다 짧은 트랜잭션으로 커밋한다.
+ * 테이블 전체에 한 번에 거는 update/delete처럼 락을 오래 잡지 않으므로 온라인 트래픽을 막지 않는다.
+ *
+ * - bulk 쿼리는 영속성 컨텍스트를 거치지 않으므로 chunk마다 clear 하고, 2차 캐시 region과 페이지 캐시도 비운다.
+ * - 엔티티 리스너도 거치지 않으므로 {@link BulkChangeListener}에 시작과 끝을 알린다. (username 인덱스 등)
+ * - chunk마다 커밋하므로 호출하는 쪽 트랜잭션 안에서는 사용할 수 없다.
+ * - update/delete 절에는 join을 쓸 수 없으므로 predicate는 대상 엔티티의 필드만 사용해야 한다.
+ */
+@Slf4j
+@Component
+public class ChunkedBulkOperations {
+
+  private final EntityManager entityManager;
+  private final EntityManagerFactory entityManagerFactory;
+  private final PageResultCache pageResultCache;
+  private final List<BulkChangeListener> bulkChangeListeners;
+  private final TransactionTemplate transactionTemplate;
+  private final int chunkSize;
+
+  public ChunkedBulkOperations(
+      EntityManager entityManager,
+      EntityManagerFactory entityManagerFactory,
+      PageResultCache pageResultCache,
+      ObjectProvider<BulkChangeListener> bulkChangeListeners,
+      PlatformTransactionManager transactionManager,
+      @Value("${querydsl.bulk.chunk-size:1000}") int chunkSize
+  ) {
+    this.entityManager = entityManager;
+    this.entityManagerFactory = entityManagerFactory;
+    this.pageResultCache = pageResultCache;
+    this.bulkChangeListeners = bulkChangeListeners.orderedStream().toList();
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.chunkSize = chunkSize;
+  }
+
+  public BulkResult update(
+      EntityPath<?> entity,
+      NumberPath<Long> id,
+      Predicate predicate,
+      UnaryOperator<JPAUpdateClause> assignments
+  ) {
+    return update(entity, id, predicate, assignments, ChunkedBulkOperations::logProgress);
+  }
+
+  public BulkResult update(
+      EntityPath<?> entity,
+      NumberPath<Long> id,
+      Predicate predicate,
+      UnaryOperator<JPAUpdateClause> assignments,
+      ProgressListener progressListener
+  ) {
+    return execute(entity, id, predicate, progressListener, (queryFactory, chunkPredicate) ->
+        assignments.apply(queryFactory.update(entity))
+            .where(chunkPredicate)
+            .execute());
+  }
+
+  public BulkResult delete(EntityPath<?> entity, NumberPath<Long> id, Predicate predicate) {
+    return delete(entity, id, predicate, ChunkedBulkOperations::logProgress);
+  }
+
+  public BulkResult delete(
+      EntityPath<?> entity,
+      NumberPath<Long> id,
+      Predicate predicate,
+      ProgressListener progressListener
+  ) {
+    return execute(entity, id, predicate, progressListener, (queryFactory, chunkPredicate) ->
+        queryFactory.delete(entity)
+            .where(chunkPredicate)
+            .execute());
+  }
+
+  private BulkResult execute(
+      EntityPath<?> entity,
+      NumberPath<Long> id,
+      Predicate predicate,
+      ProgressListener progressListener,
+      ChunkStatement chunkStatement
+  ) {
+    Assert.state(
+        !TransactionSynchronizationManager.isActualTransactionActive(),
+        "Chunked bulk operations commit per chunk and must not run inside a transaction"
+    );
+
+    // 대상 행이 없어도 알린다. (ShardedWriteGuard처럼 벌크 쓰기 자체를 거부하는 리스너)
+    bulkChangeListeners.forEach(listener -> listener.beforeBulk(entity.getType()));
+    try {
+      NumberExpression<Long> minId = id.min();
+      NumberExpression<Long> maxId = id.max();
+      Tuple range = transactionTemplate.execute(status -> new JPAQueryFactory(entityManager)
+          .select(minId, maxId)
+          .from(entity)
+          .where(predicate)
+          .fetchOne());
+      if (range == null || range.get(minId) == null) {
+        return new BulkResult(0, 0);
+      }
+      long first = range.get(minId);
+      long last = range.get(maxId);
+      return executeChunks(entity, id, predicate, progressListener, chunkStatement, first, last);
+    } finally {
+      bulkChangeListeners.forEach(listener -> listener.afterBulk(entity.getType()));
+    }
+  }
+
+  private BulkResult executeChunks(
+      EntityPath<?> entity,
+      NumberPath<Long> id,
+      Predicate predicate,
+      ProgressListener progressListener,
+      ChunkStatement chunkStatement,
+      long first,
+      long last
+  ) {
+    long affectedRows = 0;
+    int chunks = 0;
+    for (long from = first; from <= last; from += chunkSize) {
+      long to = Math.min(from + chunkSize - 1, last);
+      Predicate chunkPredicate = ExpressionUtils.allOf(predicate, id.between(from, to));
+
+      Long rows = transactionTemplate.execute(status -> {
+        long executed = chunkStatement.execute(new JPAQueryFactory(entityManager), chunkPredicate);
+        entityManager.clear();
+        return executed;
+      });
+      entityManagerFactory.getCache().evict(entity.getType());
+      pageResultCache.invalidate(EntityChange.bulk(entity.getType()));
+
+      affectedRows += rows != null ? rows : 0;
+      chunks++;
+      progressListener.onChunk(new Progress(entity.getType().getSimpleName(), chunks, first, to, last, affectedRows));
+    }
+    return new BulkResult(affectedRows, chunks);
+  }
+
+  private static void logProgress(Progress progress) {
+    log.info("bulk {}: chunk {} done, id {}/{} ({}%), {} rows affected",
+        progress.entity(), progress.chunk(), progress.currentId(), progress.lastId(),
+        Math.round(progress.ratio() * 100), progress.affectedRows());
+  }
+
+  @FunctionalInterface
+  private interface ChunkStatement {
+
+    long execute(JPAQueryFactory queryFactory, Predicate chunkPredicate);
+
+  }
+
+  @FunctionalInterface
+  public interface ProgressListener {
+
+    void onChunk(Progress progress);
+
+  }
+
+  public record Progress(
+      String entity,
+      int chunk,
+      long firstId,
+      long currentId,
+      long lastId,
+      long affectedRows
+  ) {
+
+    public double ratio() {
+      return (double) (currentId - firstId + 1) / (lastId - firstId + 1);
+    }
+
+  }
+
+  public record BulkResult(long affectedRows, int chunks) {
+  }
+
+}
@@ -0,0 +1,17 @@
+package com.example.querydsl.repository.support;
+
+/**
+ * 페이징 total count 계산 방식
+ */
+public enum CountStrategy {
+
+  /** 매 요청마다 count 쿼리 실행 */
+  EXACT,
+
+  /** 정규화된 검색 조건별로 count 결과를 TTL 동안 재사용 */
+  CACHED,
+
+  /** 임계치까지만 세고, 넘으면 임계치를 하한값으로 응답 (CountedPage.totalCapped) */
+  ESTIMATED
+
+}
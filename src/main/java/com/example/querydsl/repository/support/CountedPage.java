@@ -0,0 +1,46 @@
+package com.example.querydsl.repository.support;
+
+import java.util.List;
+import lombok.Getter;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * total count를 어떤 방식으로 구했는지 함께 응답하는 Page
+ * totalCapped이면 total은 ESTIMATED 임계치로 자른 하한값이다. 실제로는 더 있으므로
+ * 다음 페이지 여부는 total 대신 이 페이지가 꽉 찼는지로 판단하고, getTotalPages()도 하한값이다.
+ */
+@Getter
+public class CountedPage<T> extends PageImpl<T> {
+
+  private final CountStrategy countStrategy;
+  private final boolean totalCapped;
+
+  public CountedPage(
+      List<T> content,
+      Pageable pageable,
+      long total,
+      CountStrategy countStrategy,
+      boolean totalCapped
+  ) {
+    super(content, pageable, total);
+    this.countStrategy = countStrategy;
+    this.totalCapped = totalCapped;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (!totalCapped) {
+      return super.hasNext();
+    }
+    return getNumberOfElements() == getSize() || getNumber() + 1 < super.getTotalPages();
+  }
+
+  // 잘린 total로 계산한 페이지 수가 다음 페이지가 있다는 판단과 어긋나지 않도록
+  @Override
+  public int getTotalPages() {
+    int totalPages = super.getTotalPages();
+    return totalCapped && hasNext() ? Math.max(totalPages, getNumber() + 2) : totalPages;
+  }
+
+}
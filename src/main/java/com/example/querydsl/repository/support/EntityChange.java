@@ -0,0 +1,31 @@
+package com.example.querydsl.repository.support;
+
+import java.util.Map;
+
+/**
+ * 커밋된 엔티티 변경 하나 (PageResultCache 무효화 판단용)
+ * - INSERT: oldState 없음, DELETE: newState 없음
+ * - UPDATE인데 oldState가 없거나 BULK이면 어떤 행이 바뀌었는지 알 수 없으므로
+ *   해당 엔티티에 의존하는 항목은 모두 영향을 받은 것으로 본다.
+ */
+public record EntityChange(
+    Kind kind,
+    Class<?> entityType,
+    Object id,
+    Map<String, Object> oldState,
+    Map<String, Object> newState
+) {
+
+  public static EntityChange bulk(Class<?> entityType) {
+    return new EntityChange(Kind.BULK, entityType, null, null, null);
+  }
+
+  public boolean isUnknown() {
+    return kind == Kind.BULK || (kind == Kind.UPDATE && oldState == null);
+  }
+
+  public enum Kind {
+    INSERT, UPDATE, DELETE, BULK
+  }
+
+}
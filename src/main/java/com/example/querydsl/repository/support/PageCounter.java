@@ -0,0 +1,162 @@
+package com.example.querydsl.repository.support;
+
+import com.querydsl.core.QueryMetadata;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberTemplate;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.JPQLSerializer;
+import com.querydsl.jpa.impl.JPAProvider;
+import com.querydsl.jpa.impl.JPAUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link CountStrategy}에 따라 페이지의 total count를 구한다.
+ * count가 필요 없는 경우(첫 페이지가 page size보다 작은 경우 등)는 기존처럼
+ * {@link PageableExecutionUtils}와 같은 규칙으로 count 쿼리 자체를 생략한다.
+ */
+@Component
+public class PageCounter {
+
+  private static final NumberTemplate<Integer> ONE = Expressions.numberTemplate(Integer.class, "1");
+
+  private final EntityManager entityManager;
+  private final MeterRegistry meterRegistry;
+  private final Duration cacheTtl;
+  private final int cacheMaxSize;
+  private final int estimateThreshold;
+  private final Map<Object, CachedCount> cache = new ConcurrentHashMap<>();
+
+  public PageCounter(
+      EntityManager entityManager,
+      MeterRegistry meterRegistry,
+      @Value("${querydsl.count.cache-ttl:30s}") Duration cacheTtl,
+      @Value("${querydsl.count.cache-max-size:1000}") int cacheMaxSize,
+      @Value("${querydsl.count.estimate-threshold:10000}") int estimateThreshold
+  ) {
+    this.entityManager = entityManager;
+    this.meterRegistry = meterRegistry;
+    this.cacheTtl = cacheTtl;
+    this.cacheMaxSize = cacheMaxSize;
+    this.estimateThreshold = estimateThreshold;
+  }
+
+  public <T> CountedPage<T> getPage(
+      List<T> content,
+      Pageable pageable,
+      CountStrategy countStrategy,
+      Object cacheKey,
+      JPQLQuery<?> countQuery
+  ) {
+    OptionalLong knownTotal = knownTotal(content.size(), pageable);
+    Total total = knownTotal.isPresent()
+        ? new Total(knownTotal.getAsLong(), false, true)
+        : count(countStrategy, cacheKey, countQuery);
+    recordCount(meterRegistry, countStrategy, total.skipped());
+    return new CountedPage<>(
+        content,
+        pageable,
+        total.value(),
+        countStrategy,
+        total.capped()
+    );
+  }
+
+  /*
+   * PageableExecutionUtils와 같은 규칙으로 content만 보고 total을 알 수 있는지 판단
+   * - 첫 페이지가 page size보다 작으면 content 수가 곧 total
+   * - 중간 이후 페이지가 page size보다 작으면(마지막 페이지) offset + content 수
+   * */
+  static OptionalLong knownTotal(int contentSize, Pageable pageable) {
+    if (pageable.isUnpaged()) {
+      return OptionalLong.of(contentSize);
+    }
+    if (pageable.getOffset() == 0) {
+      return pageable.getPageSize() > contentSize ? OptionalLong.of(contentSize) : OptionalLong.empty();
+    }
+    if (contentSize != 0 && pageable.getPageSize() > contentSize) {
+      return OptionalLong.of(pageable.getOffset() + contentSize);
+    }
+    return OptionalLong.empty();
+  }
+
+  private Total count(CountStrategy countStrategy, Object cacheKey, JPQLQuery<?> countQuery) {
+    return switch (countStrategy) {
+      case EXACT -> new Total(countQuery.fetchCount(), false, false);
+      case CACHED -> new Total(cachedCount(cacheKey, countQuery), false, false);
+      case ESTIMATED -> {
+        long total = cappedCount(countQuery);
+        yield new Total(Math.min(total, estimateThreshold), total > estimateThreshold, false);
+      }
+    };
+  }
+
+  static void recordCount(MeterRegistry meterRegistry, CountStrategy countStrategy, boolean skipped) {
+    meterRegistry.counter(
+        "repository.page.count",
+        "strategy", countStrategy.name(),
+        "skipped", String.valueOf(skipped)
+    ).increment();
+  }
+
+  public void evictAll() {
+    cache.clear();
+  }
+
+  private long cachedCount(Object cacheKey, JPQLQuery<?> countQuery) {
+    long now = System.nanoTime();
+    CachedCount cached = cache.get(cacheKey);
+    if (cached != null && cached.expiresAt() - now > 0) {
+      return cached.total();
+    }
+
+    long total = countQuery.fetchCount();
+    if (cache.size() >= cacheMaxSize) {
+      cache.values().removeIf(entry -> entry.expiresAt() - now <= 0);
+    }
+    if (cache.size() < cacheMaxSize) {
+      cache.put(cacheKey, new CachedCount(total, now + cacheTtl.toNanos()));
+    }
+    return total;
+  }
+
+  /*
+   * select count(*) from (count 쿼리 limit 임계치 + 1)
+   * DB가 임계치 + 1건에서 멈추므로 전체 건수와 무관하게 비용이 일정하고, 행은 애플리케이션으로 가져오지 않는다.
+   * Querydsl은 from 절 서브쿼리를 만들 수 없으므로 count 쿼리의 JPQL을 HQL derived table로 감싼다.
+   * (HQL은 derived table의 select 항목에 alias를, limit에 order by를 요구하므로 상수 컬럼으로 정렬)
+   * */
+  private long cappedCount(JPQLQuery<?> countQuery) {
+    QueryMetadata metadata = countQuery.select(ONE.as("one")).getMetadata();
+    metadata.clearOrderBy();
+    JPQLSerializer serializer = new JPQLSerializer(JPAProvider.getTemplates(entityManager), entityManager);
+    serializer.serialize(metadata, false, null);
+
+    Query query = entityManager.createQuery(
+        "select count(*) from (" + serializer + " order by 1 limit " + (estimateThreshold + 1L) + ") capped");
+    JPAUtil.setConstants(query, serializer.getConstants(), metadata.getParams());
+    return ((Number) query.getSingleResult()).longValue();
+  }
+
+  private record CachedCount(long total, long expiresAt) {
+  }
+
+  /**
+   * @param value   응답할 total
+   * @param capped  ESTIMATED에서 임계치로 잘렸는지 (value는 하한값)
+   * @param skipped content만으로 total을 알 수 있어 count 쿼리를 생략했는지
+   */
+  private record Total(long value, boolean capped, boolean skipped) {
+  }
+
+}
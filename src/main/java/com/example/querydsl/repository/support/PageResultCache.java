@@ -0,0 +1,125 @@
+package com.example.querydsl.repository.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 페이지 조회 결과를 (이름, 정규화된 조건, Pageable) 키로 보관하는 LRU 캐시
+ * 항목마다 "어떤 엔티티 변경에 영향을 받는지"를 함께 저장해 두고,
+ * PageResultCacheEventListener가 커밋된 변경마다 영향을 받는 항목만 제거한다.
+ *
+ * - 호출자가 트랜잭션 안에 있으면 커밋되지 않은 변경을 봐야 하므로 캐시를 쓰지 않는다.
+ * - 조회하는 동안 무효화가 있었으면 결과가 이미 낡았을 수 있으므로 저장하지 않는다.
+ * - 호출자가 결과를 고쳐도 캐시가 바뀌지 않도록 저장할 때와 꺼낼 때 copy로 복사한다.
+ * - 메트릭: repository.page-cache(result=hit|miss), repository.page-cache.evictions(cause=size|invalidation)
+ */
+@Component
+public class PageResultCache {
+
+  private final boolean enabled;
+  private final int maxSize;
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter sizeEvictions;
+  private final Counter invalidations;
+  private final AtomicLong generation = new AtomicLong();
+  private final Map<List<Object>, Entry> entries;
+
+  public PageResultCache(
+      MeterRegistry meterRegistry,
+      @Value("${querydsl.page-cache.enabled:true}") boolean enabled,
+      @Value("${querydsl.page-cache.max-size:1000}") int maxSize
+  ) {
+    this.enabled = enabled;
+    this.maxSize = maxSize;
+    this.hits = meterRegistry.counter("repository.page-cache", "result", "hit");
+    this.misses = meterRegistry.counter("repository.page-cache", "result", "miss");
+    this.sizeEvictions = meterRegistry.counter("repository.page-cache.evictions", "cause", "size");
+    this.invalidations = meterRegistry.counter("repository.page-cache.evictions", "cause", "invalidation");
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<List<Object>, Entry> eldest) {
+        if (size() > PageResultCache.this.maxSize) {
+          sizeEvictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+    Gauge.builder("repository.page-cache.size", this, PageResultCache::size)
+        .register(meterRegistry);
+  }
+
+  /*
+   * copy: 결과의 복사본 (Pages.copyOf처럼 수정 가능한 요소까지 복사)
+   * affectedBy: 결과와 커밋된 변경을 받아 이 결과를 버려야 하는지 판단
+   * */
+  @SuppressWarnings("unchecked")
+  public <T> T execute(
+      String name,
+      Object key,
+      Supplier<T> loader,
+      UnaryOperator<T> copy,
+      BiPredicate<? super T, EntityChange> affectedBy
+  ) {
+    if (!enabled || TransactionSynchronizationManager.isActualTransactionActive()) {
+      return loader.get();
+    }
+
+    List<Object> cacheKey = List.of(name, key);
+    synchronized (entries) {
+      Entry entry = entries.get(cacheKey);
+      if (entry != null) {
+        hits.increment();
+        return copy.apply((T) entry.value());
+      }
+    }
+    misses.increment();
+
+    long loadedAt = generation.get();
+    T value = loader.get();
+    T cached = copy.apply(value);
+    synchronized (entries) {
+      if (generation.get() == loadedAt) {
+        entries.put(cacheKey, new Entry(cached, change -> affectedBy.test(cached, change)));
+      }
+    }
+    return value;
+  }
+
+  public void invalidate(EntityChange change) {
+    generation.incrementAndGet();
+    synchronized (entries) {
+      Iterator<Entry> iterator = entries.values().iterator();
+      while (iterator.hasNext()) {
+        if (iterator.next().affectedBy().test(change)) {
+          iterator.remove();
+          invalidations.increment();
+        }
+      }
+    }
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  private record Entry(Object value, Predicate<EntityChange> affectedBy) {
+  }
+
+}
@@ -0,0 +1,108 @@
+package com.example.querydsl.repository.support;
+
+import com.example.querydsl.repository.support.EntityChange.Kind;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * 커밋된 insert/update/delete를 {@link EntityChange}로 바꿔 {@link PageResultCache}에 전달
+ * 다른 트랜잭션이 변경을 볼 수 있게 된 뒤(커밋 후)에 무효화해야 하므로 post-commit 이벤트를 사용한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class PageResultCacheEventListener implements
+    PostCommitInsertEventListener,
+    PostCommitUpdateEventListener,
+    PostCommitDeleteEventListener {
+
+  private final EntityManagerFactory entityManagerFactory;
+  private final PageResultCache pageResultCache;
+
+  @PostConstruct
+  void register() {
+    EventListenerRegistry registry = entityManagerFactory
+        .unwrap(SessionFactoryImplementor.class)
+        .getServiceRegistry()
+        .getService(EventListenerRegistry.class);
+    registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+    registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+    registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+  }
+
+  @Override
+  public boolean requiresPostCommitHandling(EntityPersister persister) {
+    return true;
+  }
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    pageResultCache.invalidate(new EntityChange(
+        Kind.INSERT,
+        event.getPersister().getMappedClass(),
+        event.getId(),
+        null,
+        state(event.getPersister(), event.getState())
+    ));
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    pageResultCache.invalidate(new EntityChange(
+        Kind.UPDATE,
+        event.getPersister().getMappedClass(),
+        event.getId(),
+        state(event.getPersister(), event.getOldState()),
+        state(event.getPersister(), event.getState())
+    ));
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    pageResultCache.invalidate(new EntityChange(
+        Kind.DELETE,
+        event.getPersister().getMappedClass(),
+        event.getId(),
+        state(event.getPersister(), event.getDeletedState()),
+        null
+    ));
+  }
+
+  @Override
+  public void onPostInsertCommitFailed(PostInsertEvent event) {
+  }
+
+  @Override
+  public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+  }
+
+  @Override
+  public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+  }
+
+  private static Map<String, Object> state(EntityPersister persister, Object[] values) {
+    if (values == null) {
+      return null;
+    }
+    String[] propertyNames = persister.getPropertyNames();
+    Map<String, Object> state = new HashMap<>();
+    for (int i = 0; i < propertyNames.length; i++) {
+      state.put(propertyNames[i], values[i]);
+    }
+    return state;
+  }
+
+}
@@ -0,0 +1,29 @@
+package com.example.querydsl.repository.support;
+
+import java.util.function.UnaryOperator;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+/**
+ * 여러 호출자가 같이 받는 페이지 결과(SingleFlight, PageResultCache)를 호출자마다 복사한다.
+ * Page의 content 목록은 수정할 수 없지만 요소(@Data DTO)는 바뀔 수 있으므로 요소까지 복사한다.
+ */
+public final class Pages {
+
+  private Pages() {
+  }
+
+  public static <T> Page<T> copyOf(Page<T> page, UnaryOperator<T> copyElement) {
+    if (page instanceof CountedPage<T> countedPage) {
+      return new CountedPage<>(
+          page.getContent().stream().map(copyElement).toList(),
+          page.getPageable(),
+          page.getTotalElements(),
+          countedPage.getCountStrategy(),
+          countedPage.isTotalCapped()
+      );
+    }
+    return new PageImpl<>(page.getContent().stream().map(copyElement).toList(), page.getPageable(), page.getTotalElements());
+  }
+
+}
@@ -5,18 +5,28 @@ import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import org.hibernate.FlushMode;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
 import org.springframework.data.jpa.repository.support.Querydsl;
 import org.springframework.data.querydsl.SimpleEntityPathResolver;
-import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.Assert;
 
@@ -28,12 +38,18 @@ import org.springframework.util.Assert;
  * @see org.springframework.data.jpa.repository.support.QuerydslRepositorySupport
  */
 @Repository
-public class Querydsl4RepositorySupport {
+public abstract class Querydsl4RepositorySupport {
 
   private final Class domainClass;
   private Querydsl querydsl;
   private EntityManager entityManager;
   private JPAQueryFactory queryFactory;
+  private PageCounter pageCounter;
+  private PageResultCache pageResultCache;
+  private ReadOnlyQueryExecutor readOnlyQueryExecutor;
+  private boolean concurrentCount;
+  private int readOnlyFetchSize;
+  private MeterRegistry meterRegistry;
 
   public Querydsl4RepositorySupport(Class<?> domainClass) {
     Assert.notNull(domainClass, "Domain class must not be null!");
@@ -59,6 +75,40 @@ public class Querydsl4RepositorySupport {
     return entityManager;
   }
 
+  @Autowired
+  public void setReadOnlyQueryExecutor(ReadOnlyQueryExecutor readOnlyQueryExecutor) {
+    this.readOnlyQueryExecutor = readOnlyQueryExecutor;
+  }
+
+  @Autowired
+  public void setConcurrentCount(
+      @Value("${querydsl.pagination.concurrent-count:false}") boolean concurrentCount
+  ) {
+    this.concurrentCount = concurrentCount;
+  }
+
+  @Autowired
+  public void setReadOnlyFetchSize(
+      @Value("${querydsl.read-only.fetch-size:500}") int readOnlyFetchSize
+  ) {
+    this.readOnlyFetchSize = readOnlyFetchSize;
+  }
+
+  @Autowired
+  public void setMeterRegistry(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Autowired
+  public void setPageCounter(PageCounter pageCounter) {
+    this.pageCounter = pageCounter;
+  }
+
+  @Autowired
+  public void setPageResultCache(PageResultCache pageResultCache) {
+    this.pageResultCache = pageResultCache;
+  }
+
   @Autowired
   public void setEntityManager(EntityManager entityManager) {
     Assert.notNull(entityManager, "EntityManager must not be null!");
@@ -81,13 +131,66 @@ public class Querydsl4RepositorySupport {
     return getQueryFactory().selectFrom(from);
   }
 
+  /*
+   * fetchPlan: 엔티티에 선언한 @NamedEntityGraph 이름
+   * 쿼리마다 join().fetchJoin()을 직접 쓰지 않고 엔드포인트별로 로딩 전략만 바꿀 수 있다.
+   * */
+  protected <T> JPAQuery<T> select(Expression<T> expr, String fetchPlan) {
+    return withFetchPlan(select(expr), fetchPlan);
+  }
+
+  protected <T> JPAQuery<T> selectFrom(EntityPath<T> from, String fetchPlan) {
+    return withFetchPlan(selectFrom(from), fetchPlan);
+  }
+
+  /*
+   * 읽기 전용 조회: 조회한 엔티티를 read-only로 올려 dirty checking 스냅샷을 만들지 않고,
+   * FlushMode.MANUAL로 조회 전 auto flush도 하지 않는다. (fetch size는 querydsl.read-only.fetch-size)
+   * 주의: 호출자의 flush 되지 않은 변경은 결과에 보이지 않고, 조회한 엔티티를 수정해도 반영되지 않는다.
+   * */
+  protected <T> JPAQuery<T> selectReadOnly(Expression<T> expr) {
+    return readOnly(select(expr));
+  }
+
+  protected <T> JPAQuery<T> selectFromReadOnly(EntityPath<T> from) {
+    return readOnly(selectFrom(from));
+  }
+
+  // content/count 쿼리 모두 읽기 전용 힌트를 적용한 엔티티 페이지
+  protected <T> Page<T> applyReadOnlyPagination(
+      Pageable pageable,
+      Function<JPAQueryFactory, JPAQuery> contentQuery,
+      Function<JPAQueryFactory, JPAQuery> countQuery
+  ) {
+    JPAQuery jpaContentQuery = readOnly(contentQuery.apply(getQueryFactory()));
+    List<T> content = getQuerydsl()
+        .applyPagination(pageable, jpaContentQuery)
+        .fetch();
+    JPAQuery countResult = readOnly(countQuery.apply(getQueryFactory()));
+    return getPage(content, pageable, CountStrategy.EXACT, countResult::fetchCount);
+  }
+
   protected <T> Page<T> applyPagination(Pageable pageable,
       Function<JPAQueryFactory, JPAQuery> contentQuery) {
     JPAQuery jpaQuery = contentQuery.apply(getQueryFactory());
     List<T> content = getQuerydsl()
         .applyPagination(pageable, jpaQuery)
         .fetch();
-    return PageableExecutionUtils.getPage(content, pageable, jpaQuery::fetchCount);
+    return getPage(content, pageable, CountStrategy.EXACT, jpaQuery::fetchCount);
+  }
+
+  // count 쿼리는 fetch plan을 적용하기 전에 복제해서 만든다.
+  protected <T> Page<T> applyPagination(
+      Pageable pageable,
+      String fetchPlan,
+      Function<JPAQueryFactory, JPAQuery> contentQuery
+  ) {
+    JPAQuery jpaQuery = contentQuery.apply(getQueryFactory());
+    JPAQuery countQuery = (JPAQuery) jpaQuery.clone();
+    List<T> content = getQuerydsl()
+        .applyPagination(pageable, withFetchPlan(jpaQuery, fetchPlan))
+        .fetch();
+    return getPage(content, pageable, CountStrategy.EXACT, countQuery::fetchCount);
   }
 
   protected <T> Page<T> applyPagination(
@@ -96,13 +199,128 @@ public class Querydsl4RepositorySupport {
           JPAQuery> contentQuery,
       Function<JPAQueryFactory,
           JPAQuery> countQuery
+  ) {
+    return applyPagination(pageable, null, contentQuery, countQuery);
+  }
+
+  // fetch plan은 content 쿼리에만 적용하고 count 쿼리에는 적용하지 않는다.
+  protected <T> Page<T> applyPagination(
+      Pageable pageable,
+      String fetchPlan,
+      Function<JPAQueryFactory, JPAQuery> contentQuery,
+      Function<JPAQueryFactory, JPAQuery> countQuery
+  ) {
+    if (concurrentCount && pageable.isPaged()) {
+      return applyPaginationConcurrently(pageable, fetchPlan, contentQuery, countQuery);
+    }
+    JPAQuery jpaContentQuery = withFetchPlan(contentQuery.apply(getQueryFactory()), fetchPlan);
+    List<T> content = getQuerydsl()
+        .applyPagination(pageable, jpaContentQuery)
+        .fetch();
+    JPAQuery countResult = countQuery.apply(getQueryFactory());
+    return getPage(content, pageable, CountStrategy.EXACT, countResult::fetchCount);
+  }
+
+  protected <T> Page<T> applyPagination(
+      Pageable pageable,
+      Function<JPAQueryFactory,
+          JPAQuery> contentQuery,
+      Function<JPAQueryFactory,
+          JPAQuery> countQuery,
+      CountStrategy countStrategy,
+      Object countCacheKey
   ) {
     JPAQuery jpaContentQuery = contentQuery.apply(getQueryFactory());
     List<T> content = getQuerydsl()
         .applyPagination(pageable, jpaContentQuery)
         .fetch();
     JPAQuery countResult = countQuery.apply(getQueryFactory());
-    return PageableExecutionUtils.getPage(content, pageable, countResult::fetchCount);
+    return pageCounter.getPage(
+        content,
+        pageable,
+        countStrategy,
+        List.of(domainClass, countCacheKey),
+        countResult
+    );
+  }
+
+  /*
+   * 결과 페이지를 PageResultCache에 (queryName, cacheKey, pageable)로 보관
+   * queryName: 같은 리포지토리 안에서 쿼리마다 다른 이름 (같은 조건을 받는 다른 쿼리와 섞이지 않도록)
+   * cacheKey에는 정규화된 검색 조건처럼 결과를 결정하는 값을 모두 넣어야 한다.
+   * content 쿼리의 from/join 대상 엔티티가 커밋으로 바뀌면 무효화된다. (서브쿼리 대상은 추적하지 않음)
+   * copyElement: 캐시에 넣고 꺼낼 때 요소를 복사 (DTO처럼 수정 가능한 요소를 호출자끼리 공유하지 않도록)
+   * */
+  protected <T> Page<T> applyCachedPagination(
+      String queryName,
+      Pageable pageable,
+      Object cacheKey,
+      UnaryOperator<T> copyElement,
+      Function<JPAQueryFactory, JPAQuery> contentQuery,
+      Function<JPAQueryFactory, JPAQuery> countQuery
+  ) {
+    Set<Class<?>> entityTypes = entityTypes(contentQuery.apply(getQueryFactory()));
+    return pageResultCache.execute(
+        getClass().getName(),
+        List.of(queryName, cacheKey, pageable),
+        () -> this.<T>applyPagination(pageable, contentQuery, countQuery),
+        page -> Pages.copyOf(page, copyElement),
+        (page, change) -> entityTypes.contains(change.entityType())
+    );
+  }
+
+  /*
+   * count 쿼리를 ReadOnlyQueryExecutor로 content 쿼리와 동시에 실행 (읽기 전용 트랜잭션, 가상 스레드)
+   * 페이지 지연시간이 content + count 합에서 둘 중 느린 쪽 수준으로 줄어든다.
+   * 호출자가 트랜잭션 안에 있거나 추가 커넥션 허가가 없으면 기존처럼 content 다음에 호출 스레드에서 count
+   * content 결과만으로 total을 알 수 있으면 동시에 실행한 count 결과는 기다리지 않는다.
+   * */
+  private <T> Page<T> applyPaginationConcurrently(
+      Pageable pageable,
+      String fetchPlan,
+      Function<JPAQueryFactory, JPAQuery> contentQuery,
+      Function<JPAQueryFactory, JPAQuery> countQuery
+  ) {
+    ReadOnlyQueryExecutor.Pending<Long> total = readOnlyQueryExecutor
+        .submit(() -> countQuery.apply(getQueryFactory()).fetchCount());
+    JPAQuery jpaContentQuery = withFetchPlan(contentQuery.apply(getQueryFactory()), fetchPlan);
+    List<T> content = getQuerydsl()
+        .applyPagination(pageable, jpaContentQuery)
+        .fetch();
+    return getPage(content, pageable, CountStrategy.EXACT, total::get);
+  }
+
+  // countStrategy: totalSupplier가 total을 구하는 방식 (repository.page.count 메트릭 태그)
+  private <T> Page<T> getPage(
+      List<T> content,
+      Pageable pageable,
+      CountStrategy countStrategy,
+      LongSupplier totalSupplier
+  ) {
+    OptionalLong knownTotal = PageCounter.knownTotal(content.size(), pageable);
+    long total = knownTotal.isPresent() ? knownTotal.getAsLong() : totalSupplier.getAsLong();
+    PageCounter.recordCount(meterRegistry, countStrategy, knownTotal.isPresent());
+    return new PageImpl<>(content, pageable, total);
+  }
+
+  private static Set<Class<?>> entityTypes(JPAQuery<?> query) {
+    return query.getMetadata().getJoins().stream()
+        .<Class<?>>map(join -> join.getTarget().getType())
+        .collect(Collectors.toUnmodifiableSet());
+  }
+
+  private <Q extends JPAQuery<?>> Q readOnly(Q query) {
+    query.setHint(HibernateHints.HINT_READ_ONLY, true);
+    query.setHint(HibernateHints.HINT_FETCH_SIZE, readOnlyFetchSize);
+    query.setHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+    return query;
+  }
+
+  private <Q extends JPAQuery<?>> Q withFetchPlan(Q query, String fetchPlan) {
+    if (fetchPlan != null) {
+      query.setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, getEntityManager().getEntityGraph(fetchPlan));
+    }
+    return query;
   }
 
 }
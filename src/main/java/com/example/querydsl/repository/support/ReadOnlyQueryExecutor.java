@@ -0,0 +1,124 @@
+package com.example.querydsl.repository.support;
+
+import com.example.querydsl.metrics.StatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 요청 스레드와 동시에 실행할 읽기 전용 쿼리 (동시 page count, BatchLookup chunk)
+ * - 가상 스레드에서 Spring 읽기 전용 트랜잭션(TransactionTemplate)으로 실행하므로
+ *   replica 라우팅과 요청의 SQL 문 수 집계(StatementCounter/StatementBudget)가 그대로 적용된다.
+ * - 요청 스레드 외에 추가로 잡는 커넥션은 애플리케이션 전체에서 maxConnections개까지
+ *   (bulkhead 크기를 정할 때 이 값만큼 풀을 남겨 둔다.)
+ * - 허가를 바로 얻지 못하거나 호출자가 이미 트랜잭션(= 커넥션)을 잡고 있으면 기다리지 않고
+ *   호출 스레드에서 필요할 때 실행한다. 커넥션을 쥔 채 다른 커넥션을 기다리다 풀이 고갈되는 교착을 피한다.
+ */
+@Component
+public class ReadOnlyQueryExecutor {
+
+  private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+      Thread.ofVirtual().name("read-only-query-", 0).factory()
+  );
+  private final TransactionTemplate transactionTemplate;
+  private final MeterRegistry meterRegistry;
+  private final int maxConnections;
+  private final Semaphore permits;
+
+  public ReadOnlyQueryExecutor(
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${querydsl.parallel-query.max-connections:4}") int maxConnections
+  ) {
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.meterRegistry = meterRegistry;
+    this.maxConnections = maxConnections;
+    this.permits = new Semaphore(maxConnections);
+  }
+
+  public int maxConnections() {
+    return maxConnections;
+  }
+
+  /*
+   * query는 실행되는 스레드의 트랜잭션에 묶인 EntityManager를 써야 한다. (공유 EntityManager 프록시 기반 JPAQueryFactory)
+   * 동시에 실행하지 못하면 결과를 처음 요청할 때 호출 스레드에서 실행하므로, 쓰지 않는 결과는 쿼리도 하지 않는다.
+   * */
+  public <T> Pending<T> submit(Supplier<T> query) {
+    if (TransactionSynchronizationManager.isActualTransactionActive() || !permits.tryAcquire()) {
+      meterRegistry.counter("repository.parallel-query", "mode", "inline").increment();
+      return new Pending<>(null, query);
+    }
+    StatementCounter.Context context = StatementCounter.capture();
+    try {
+      Future<T> future = executor.submit(() -> {
+        try (StatementCounter.Scope ignored = context.attach()) {
+          return transactionTemplate.execute(status -> query.get());
+        } finally {
+          permits.release();
+        }
+      });
+      meterRegistry.counter("repository.parallel-query", "mode", "parallel").increment();
+      return new Pending<>(future, query);
+    } catch (RejectedExecutionException e) {
+      permits.release();
+      meterRegistry.counter("repository.parallel-query", "mode", "inline").increment();
+      return new Pending<>(null, query);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.close();
+  }
+
+  /**
+   * 동시에 실행 중인 쿼리의 결과, 또는 호출 스레드에서 나중에 실행할 쿼리
+   * 결과가 필요 없어도 이미 시작한 JDBC 문은 중단되지 않으므로 취소하지 않는다. (끝나면 허가를 반납)
+   */
+  public static final class Pending<T> {
+
+    private final Future<T> future;
+    private final Supplier<T> query;
+
+    private Pending(Future<T> future, Supplier<T> query) {
+      this.future = future;
+      this.query = query;
+    }
+
+    public boolean isParallel() {
+      return future != null;
+    }
+
+    public T get() {
+      if (future == null) {
+        return query.get();
+      }
+      try {
+        return future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for read-only query", e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException runtimeException) {
+          throw runtimeException;
+        }
+        throw new IllegalStateException("Read-only query failed", e.getCause());
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,92 @@
+package com.example.querydsl.repository.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 같은 키로 동시에 들어온 조회를 하나로 합친다. (single-flight)
+ * 먼저 온 호출 하나만 실제로 실행하고, 실행 중에 들어온 같은 키의 호출은 그 결과를 같이 받는다.
+ * 합쳐진 호출 수는 repository.singleflight.collapsed 메트릭으로 기록
+ *
+ * - 결과는 copy로 복사해서 호출자마다 따로 돌려준다. (한 호출자가 결과를 고쳐도 다른 호출자에게 보이지 않도록)
+ * - 먼저 실행 중인 호출은 querydsl.singleflight.max-wait까지만 기다리고, 넘으면 직접 실행한다. (repository.singleflight.timeout)
+ * - 호출자가 이미 트랜잭션 안에 있으면 아직 커밋되지 않은 변경이 결과에 섞일 수 있으므로 합치지 않고 바로 실행한다.
+ */
+@Component
+public class SingleFlight {
+
+  private final MeterRegistry meterRegistry;
+  private final Duration maxWait;
+  private final Map<List<Object>, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+  public SingleFlight(
+      MeterRegistry meterRegistry,
+      @Value("${querydsl.singleflight.max-wait:PT5S}") Duration maxWait
+  ) {
+    this.meterRegistry = meterRegistry;
+    this.maxWait = maxWait;
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T> T execute(String name, Object key, Supplier<T> call, UnaryOperator<T> copy) {
+    if (TransactionSynchronizationManager.isActualTransactionActive()) {
+      return call.get();
+    }
+
+    List<Object> flightKey = List.of(name, key);
+    CompletableFuture<Object> flight = new CompletableFuture<>();
+    CompletableFuture<Object> inFlight = flights.putIfAbsent(flightKey, flight);
+    if (inFlight != null) {
+      meterRegistry.counter("repository.singleflight.collapsed", "name", name).increment();
+      try {
+        T shared = (T) await(inFlight);
+        return shared != null ? copy.apply(shared) : null;
+      } catch (TimeoutException e) {
+        meterRegistry.counter("repository.singleflight.timeout", "name", name).increment();
+        return call.get();
+      }
+    }
+
+    try {
+      T result = call.get();
+      // 호출자에게 돌려준 result와 따로, 기다리던 호출들이 복사해 갈 원본
+      flight.complete(result != null ? copy.apply(result) : null);
+      return result;
+    } catch (RuntimeException | Error e) {
+      flight.completeExceptionally(e);
+      throw e;
+    } finally {
+      flights.remove(flightKey, flight);
+    }
+  }
+
+  private Object await(CompletableFuture<Object> inFlight) throws TimeoutException {
+    try {
+      return inFlight.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for an in-flight query", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+}
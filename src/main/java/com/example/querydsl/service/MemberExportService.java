@@ -0,0 +1,97 @@
+package com.example.querydsl.service;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.repository.MemberJpaRepository;
+import com.example.querydsl.repository.ShardedMemberRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 검색 결과를 NDJSON(한 줄에 JSON 하나)으로 스트리밍한다.
+ * 커서로 읽은 행을 바로 써 내려가므로 결과 건수와 관계없이 힙 사용량이 일정하다.
+ * sharding이 켜져 있으면 shard를 하나씩 커서로 읽는다. (행 순서는 shard 순서)
+ */
+@Service
+public class MemberExportService {
+
+  private static final int NEWLINE = '\n';
+
+  private final MemberJpaRepository memberJpaRepository;
+  private final Optional<ShardedMemberRepository> shardedMemberRepository;
+  private final ObjectWriter objectWriter;
+  private final int fetchSize;
+
+  public MemberExportService(
+      MemberJpaRepository memberJpaRepository,
+      Optional<ShardedMemberRepository> shardedMemberRepository,
+      ObjectMapper objectMapper,
+      @Value("${querydsl.export.fetch-size:500}") int fetchSize
+  ) {
+    this.memberJpaRepository = memberJpaRepository;
+    this.shardedMemberRepository = shardedMemberRepository;
+    this.objectWriter = objectMapper.writerFor(MemberTeamDto.class);
+    this.fetchSize = fetchSize;
+  }
+
+  @Transactional(readOnly = true)
+  public long exportNdjson(
+      MemberSearchCondition memberSearchCondition,
+      OutputStream outputStream
+  ) throws IOException {
+    NdjsonWriter writer = new NdjsonWriter(outputStream);
+    if (shardedMemberRepository.isPresent()) {
+      try {
+        shardedMemberRepository.get().forEach(memberSearchCondition, fetchSize, row -> {
+          try {
+            writer.write(row);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+    } else {
+      try (Stream<MemberTeamDto> stream = memberJpaRepository
+          .streamByWhere(memberSearchCondition, fetchSize)) {
+        Iterator<MemberTeamDto> iterator = stream.iterator();
+        while (iterator.hasNext()) {
+          writer.write(iterator.next());
+        }
+      }
+    }
+    outputStream.flush();
+    return writer.rows;
+  }
+
+  // fetchSize 건마다 flush 해서 클라이언트가 받는 동안 다음 행을 읽는다.
+  private final class NdjsonWriter {
+
+    private final OutputStream outputStream;
+    private long rows;
+
+    private NdjsonWriter(OutputStream outputStream) {
+      this.outputStream = outputStream;
+    }
+
+    void write(MemberTeamDto row) throws IOException {
+      outputStream.write(objectWriter.writeValueAsBytes(row));
+      outputStream.write(NEWLINE);
+      if (++rows % fetchSize == 0) {
+        outputStream.flush();
+      }
+    }
+
+  }
+
+}
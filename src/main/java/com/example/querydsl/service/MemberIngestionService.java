@@ -0,0 +1,138 @@
+package com.example.querydsl.service;
+
+import com.example.querydsl.dto.MemberIngestRow;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 회원 대량 적재
+ * - hibernate.jdbc.batch_size + order_inserts 로 JDBC batch insert
+ * - allocationSize 100의 pooled 시퀀스로 id 채번 round trip 최소화
+ * - batch마다 flush/clear 해서 영속성 컨텍스트가 커지지 않게 유지
+ * - chunk 단위로 커밋해서 트랜잭션(undo log)도 일정 크기로 유지
+ * - 팀은 이름으로 기존 팀을 찾아 재사용하고 없을 때만 만든다.
+ */
+@Slf4j
+@Service
+public class MemberIngestionService {
+
+  private final EntityManager entityManager;
+  private final TransactionTemplate transactionTemplate;
+  private final int batchSize;
+  private final int chunkSize;
+
+  public MemberIngestionService(
+      EntityManager entityManager,
+      PlatformTransactionManager transactionManager,
+      @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int batchSize,
+      @Value("${querydsl.ingest.chunk-size:10000}") int chunkSize
+  ) {
+    this.entityManager = entityManager;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+    this.chunkSize = chunkSize;
+  }
+
+  public IngestionReport ingest(Iterator<MemberIngestRow> rows) {
+    long startedAt = System.nanoTime();
+    // 커밋된 chunk에서 만들었거나 찾은 팀만 보관 (롤백된 chunk의 id를 다음 chunk에서 참조하지 않도록)
+    Map<String, Long> teamIds = new HashMap<>();
+    long ingested = 0;
+    int createdTeams = 0;
+
+    while (rows.hasNext()) {
+      ChunkResult chunk = transactionTemplate.execute(status -> ingestChunk(rows, teamIds));
+      teamIds.putAll(chunk.teamIds());
+      ingested += chunk.members();
+      createdTeams += chunk.createdTeams();
+      log.debug("ingested {} members", ingested);
+    }
+
+    IngestionReport report = new IngestionReport(
+        ingested,
+        createdTeams,
+        Duration.ofNanos(System.nanoTime() - startedAt)
+    );
+    log.info("ingested {} members, {} new teams in {} ({} rows/s)",
+        report.members(), report.teams(), report.elapsed(), Math.round(report.rowsPerSecond()));
+    return report;
+  }
+
+  private ChunkResult ingestChunk(Iterator<MemberIngestRow> rows, Map<String, Long> committedTeamIds) {
+    Map<String, Long> chunkTeamIds = new HashMap<>();
+    int createdTeams = 0;
+    long count = 0;
+    while (count < chunkSize && rows.hasNext()) {
+      MemberIngestRow row = rows.next();
+      // changeTeam()을 거치면 Team 프록시가 초기화(select)되므로 연관관계 주인 쪽만 세팅
+      Member member = new Member(row.username(), row.age(), null);
+      if (row.teamName() != null) {
+        Long teamId = committedTeamIds.get(row.teamName());
+        if (teamId == null) {
+          teamId = chunkTeamIds.get(row.teamName());
+        }
+        if (teamId == null) {
+          teamId = findTeamId(row.teamName());
+          if (teamId == null) {
+            Team team = new Team(row.teamName());
+            entityManager.persist(team);
+            teamId = team.getId();
+            createdTeams++;
+          }
+          chunkTeamIds.put(row.teamName(), teamId);
+        }
+        member.setTeam(entityManager.getReference(Team.class, teamId));
+      }
+      entityManager.persist(member);
+      if (++count % batchSize == 0) {
+        entityManager.flush();
+        entityManager.clear();
+      }
+    }
+    entityManager.flush();
+    entityManager.clear();
+    return new ChunkResult(count, chunkTeamIds, createdTeams);
+  }
+
+  /*
+   * 이미 있는 팀은 새로 만들지 않고 재사용 (이름이 같은 팀이 여럿이면 가장 먼저 만들어진 팀)
+   * 이 chunk에서 만든 팀은 chunkTeamIds에 있으므로 조회 전에 flush 하지 않는다. (batch insert 유지)
+   * */
+  private Long findTeamId(String teamName) {
+    return entityManager
+        .createQuery("select t.id from Team t where t.name = :name order by t.id", Long.class)
+        .setParameter("name", teamName)
+        .setFlushMode(FlushModeType.COMMIT)
+        .setMaxResults(1)
+        .getResultStream()
+        .findFirst()
+        .orElse(null);
+  }
+
+  private record ChunkResult(long members, Map<String, Long> teamIds, int createdTeams) {
+  }
+
+  /**
+   * @param teams 새로 만든 팀 수 (이미 있던 팀은 재사용)
+   */
+  public record IngestionReport(long members, int teams, Duration elapsed) {
+
+    public double rowsPerSecond() {
+      long nanos = Math.max(elapsed.toNanos(), 1);
+      return members * 1_000_000_000d / nanos;
+    }
+
+  }
+
+}
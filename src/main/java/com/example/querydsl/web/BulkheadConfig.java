@@ -0,0 +1,53 @@
+package com.example.querydsl.web;
+
+import com.example.querydsl.repository.support.ReadOnlyQueryExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.Assert;
+
+@Configuration
+@ConditionalOnProperty(name = "querydsl.bulkhead.enabled", havingValue = "true")
+public class BulkheadConfig {
+
+  @Bean
+  FilterRegistrationBean<DatabaseBulkheadFilter> databaseBulkheadFilter(
+      MeterRegistry meterRegistry,
+      ReadOnlyQueryExecutor readOnlyQueryExecutor,
+      @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+      @Value("${querydsl.bulkhead.max-concurrent:0}") int maxConcurrent,
+      @Value("${querydsl.bulkhead.max-queue:100}") int maxQueue,
+      @Value("${querydsl.bulkhead.max-wait:1s}") Duration maxWait
+  ) {
+    int permits = maxConcurrent > 0
+        ? maxConcurrent
+        : requestPermits(poolSize, readOnlyQueryExecutor.maxConnections());
+    FilterRegistrationBean<DatabaseBulkheadFilter> registration = new FilterRegistrationBean<>(
+        new DatabaseBulkheadFilter(permits, maxQueue, maxWait, meterRegistry)
+    );
+    registration.addUrlPatterns(
+        "/v1/members", "/v1/members/*",
+        "/v2/members",
+        "/v3/members",
+        "/v4/members"
+    );
+    return registration;
+  }
+
+  /*
+   * 요청 하나는 요청 스레드의 커넥션 1개를 쓰고, 동시 count/BatchLookup chunk는
+   * ReadOnlyQueryExecutor가 애플리케이션 전체에서 extraConnections개까지 추가로 쓴다.
+   * 두 합이 풀 크기를 넘지 않도록 그만큼을 빼고 요청 허가 수를 정한다.
+   * */
+  static int requestPermits(int poolSize, int extraConnections) {
+    int permits = poolSize - extraConnections;
+    Assert.isTrue(permits > 0, "Connection pool (" + poolSize + ") must be larger than "
+        + "querydsl.parallel-query.max-connections (" + extraConnections + ")");
+    return permits;
+  }
+
+}
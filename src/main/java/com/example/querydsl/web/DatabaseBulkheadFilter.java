@@ -0,0 +1,85 @@
+package com.example.querydsl.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * DB 커넥션 풀 크기만큼만 요청을 동시에 처리하는 bulkhead
+ * 가상 스레드는 거의 무제한으로 만들어지므로 커넥션을 기다리는 요청이 풀 앞에 쌓이지 않도록
+ * 여기서 먼저 대기시키고, 대기열(maxQueue)이 차거나 maxWait을 넘기면 503으로 거절한다.
+ */
+public class DatabaseBulkheadFilter extends OncePerRequestFilter {
+
+  private final int maxConcurrent;
+  private final int maxQueue;
+  private final Duration maxWait;
+  private final Semaphore permits;
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final Counter rejected;
+
+  public DatabaseBulkheadFilter(
+      int maxConcurrent,
+      int maxQueue,
+      Duration maxWait,
+      MeterRegistry meterRegistry
+  ) {
+    this.maxConcurrent = maxConcurrent;
+    this.maxQueue = maxQueue;
+    this.maxWait = maxWait;
+    this.permits = new Semaphore(maxConcurrent, true);
+    this.rejected = meterRegistry.counter("bulkhead.rejected");
+    Gauge.builder("bulkhead.queue.depth", waiting, AtomicInteger::get)
+        .register(meterRegistry);
+    Gauge.builder("bulkhead.in.flight", permits, p -> this.maxConcurrent - p.availablePermits())
+        .register(meterRegistry);
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      FilterChain filterChain
+  ) throws ServletException, IOException {
+    if (!acquire()) {
+      rejected.increment();
+      response.setHeader("Retry-After", "1");
+      response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Too many concurrent database requests");
+      return;
+    }
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      permits.release();
+    }
+  }
+
+  private boolean acquire() {
+    if (permits.tryAcquire()) {
+      return true;
+    }
+    if (waiting.incrementAndGet() > maxQueue) {
+      waiting.decrementAndGet();
+      return false;
+    }
+    try {
+      return permits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } finally {
+      waiting.decrementAndGet();
+    }
+  }
+
+}
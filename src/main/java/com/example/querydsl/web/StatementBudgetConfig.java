@@ -0,0 +1,29 @@
+package com.example.querydsl.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnExpression("'${querydsl.statement-budget.mode:log}' != 'off'")
+public class StatementBudgetConfig {
+
+  @Bean
+  FilterRegistrationBean<StatementBudgetFilter> statementBudgetFilter(
+      MeterRegistry meterRegistry,
+      @Value("${querydsl.statement-budget.mode:log}") String mode,
+      @Value("${querydsl.statement-budget.max-statements:20}") int maxStatements,
+      @Value("${querydsl.statement-budget.max-repeats:5}") int maxRepeats
+  ) {
+    return new FilterRegistrationBean<>(new StatementBudgetFilter(
+        maxStatements,
+        maxRepeats,
+        "reject".equalsIgnoreCase(mode),
+        meterRegistry
+    ));
+  }
+
+}
@@ -0,0 +1,63 @@
+package com.example.querydsl.web;
+
+import com.example.querydsl.metrics.StatementBudget;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 요청마다 {@link StatementBudget}을 열어 SQL 문 수와 반복 SELECT(N+1 의심)를 추적
+ * - log: 한도를 넘은 요청을 경고 로그로 남김
+ * - reject: 한도를 넘는 순간 요청을 실패시킴 (개발 환경용)
+ * 요청별 문장 수는 http.server.requests.statements 메트릭으로 기록
+ */
+@Slf4j
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+  private final int maxStatements;
+  private final int maxRepeats;
+  private final boolean reject;
+  private final MeterRegistry meterRegistry;
+
+  public StatementBudgetFilter(int maxStatements, int maxRepeats, boolean reject, MeterRegistry meterRegistry) {
+    this.maxStatements = maxStatements;
+    this.maxRepeats = maxRepeats;
+    this.reject = reject;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      FilterChain filterChain
+  ) throws ServletException, IOException {
+    String name = request.getMethod() + " " + request.getRequestURI();
+    try (StatementBudget budget = StatementBudget.open(name, maxStatements, maxRepeats, reject)) {
+      try {
+        filterChain.doFilter(request, response);
+      } finally {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("http.server.requests.statements")
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(budget.statements());
+
+        if (budget.exceeded()) {
+          meterRegistry.counter("http.server.requests.statement.budget.exceeded", "uri", uri).increment();
+          log.warn("{} executed {} statements (budget {}), repeated selects: {}",
+              name, budget.statements(), maxStatements, budget.repeatedSelects());
+        }
+      }
+    }
+  }
+
+}
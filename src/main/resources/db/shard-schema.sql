@@ -0,0 +1,14 @@
+create table if not exists team (
+    team_id bigint primary key,
+    name varchar(255)
+);
+create index if not exists idx_team_name on team (name);
+
+create table if not exists member (
+    member_id bigint primary key,
+    username varchar(255),
+    age integer not null,
+    team_id bigint references team (team_id)
+);
+create index if not exists idx_member_username on member (username);
+create index if not exists idx_member_team_age on member (team_id, age);
@@ -508,7 +508,7 @@ class QuerydslBasicTest {
     List<MemberDto> memberDtos = queryFactory
         .select(constructor(
             MemberDto.class,
-            member.age,
+            member.username,
             member.age
         ))
         .from(member)
@@ -0,0 +1,56 @@
+package com.example.querydsl.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+class ReadOnlyRoutingDataSourceTest {
+
+  ReadOnlyRoutingDataSource readOnlyRoutingDataSource;
+  LazyConnectionDataSourceProxy dataSource;
+
+  @BeforeEach
+  void setUp() {
+    DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1", "sa", "");
+    DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "sa", "");
+
+    readOnlyRoutingDataSource = new ReadOnlyRoutingDataSource(primary, List.of(replica), Duration.ofMinutes(1));
+    readOnlyRoutingDataSource.afterPropertiesSet();
+
+    dataSource = new LazyConnectionDataSourceProxy(primary);
+    dataSource.setReadOnlyDataSource(readOnlyRoutingDataSource);
+  }
+
+  @Test
+  void routeReadOnlyConnectionsToReplica() throws SQLException {
+    assertThat(databaseName(false)).isEqualTo("PRIMARY");
+    assertThat(databaseName(true)).isEqualTo("REPLICA");
+  }
+
+  @Test
+  void routeReadsToPrimaryWithinStalenessWindow() throws SQLException {
+    readOnlyRoutingDataSource.writeCommitted();
+
+    assertThat(databaseName(true)).isEqualTo("PRIMARY");
+  }
+
+  private String databaseName(boolean readOnly) throws SQLException {
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setReadOnly(readOnly);
+      try (ResultSet resultSet = connection.createStatement().executeQuery("select database()")) {
+        resultSet.next();
+        return resultSet.getString(1);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,93 @@
+package com.example.querydsl.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.repository.MemberRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * primary(테스트용 내장 H2)와 별도 in-memory H2 replica 두 DB로 띄운 컨텍스트
+ */
+@SpringBootTest(properties = {
+    "querydsl.replica.enabled=true",
+    "querydsl.replica.urls[0]=jdbc:h2:mem:replica-${random.uuid};DB_CLOSE_DELAY=-1",
+    "querydsl.replica.sync-from-primary=true"
+})
+class ReplicaRoutingConfigTest {
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  @Autowired
+  MemberRepository memberRepository;
+
+  @Autowired
+  ReplicaSynchronizer replicaSynchronizer;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  TransactionTemplate transactionTemplate;
+
+  @BeforeEach
+  void setUp() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.executeWithoutResult(status -> {
+      Team team = new Team("replicaTeam");
+      entityManager.persist(team);
+      entityManager.persist(new Member("replicaMember1", 10, team));
+    });
+    replicaSynchronizer.sync();
+  }
+
+  @AfterEach
+  void tearDown() {
+    transactionTemplate.executeWithoutResult(status -> {
+      entityManager.createQuery("delete from Member").executeUpdate();
+      entityManager.createQuery("delete from Team").executeUpdate();
+    });
+    replicaSynchronizer.sync();
+  }
+
+  @Test
+  void readOnlySearchReadsReplica() {
+    // 동기화 이후 primary에만 쓴 회원은 replica를 읽는 검색에 보이지 않는다.
+    transactionTemplate.executeWithoutResult(status -> {
+      Team team = entityManager
+          .createQuery("select t from Team t where t.name = 'replicaTeam'", Team.class)
+          .getSingleResult();
+      entityManager.persist(new Member("replicaMember2", 20, team));
+    });
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setTeamName("replicaTeam");
+
+    // MemberRepositoryCustomImpl은 @Transactional(readOnly = true)
+    assertThat(memberRepository.search(condition))
+        .extracting(MemberTeamDto::getUsername)
+        .containsExactly("replicaMember1");
+    // 쓰기 트랜잭션은 primary
+    Long primaryCount = transactionTemplate.execute(status -> entityManager
+        .createQuery("select count(m) from Member m", Long.class)
+        .getSingleResult());
+    assertThat(primaryCount).isEqualTo(2);
+
+    replicaSynchronizer.sync();
+
+    assertThat(memberRepository.search(condition))
+        .extracting(MemberTeamDto::getUsername)
+        .containsExactlyInAnyOrder("replicaMember1", "replicaMember2");
+  }
+
+}
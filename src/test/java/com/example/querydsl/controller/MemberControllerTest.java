@@ -0,0 +1,49 @@
+package com.example.querydsl.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class MemberControllerTest {
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  @Autowired
+  MockMvc mockMvc;
+
+  @Test
+  void rejectInvalidSliceSize() throws Exception {
+    Team foo = new Team("foo");
+    entityManager.persist(foo);
+    entityManager.persist(new Member("baz", 10, foo));
+    entityManager.persist(new Member("qux", 20, foo));
+
+    mockMvc.perform(get("/v4/members").param("size", "0"))
+        .andExpect(status().isBadRequest());
+    mockMvc.perform(get("/v4/members").param("size", "-1"))
+        .andExpect(status().isBadRequest());
+    mockMvc.perform(get("/v4/members").param("size", String.valueOf(Integer.MAX_VALUE)))
+        .andExpect(status().isBadRequest());
+
+    mockMvc.perform(get("/v4/members").param("size", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.length()").value(1))
+        .andExpect(jsonPath("$.last").value(false));
+  }
+
+}
@@ -6,11 +6,14 @@ import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Commit;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
 
 @SpringBootTest
 @Transactional
 @Commit
+// 커밋한 데이터가 같은 컨텍스트(내장 DB)를 쓰는 다른 테스트에 남지 않도록 컨텍스트를 버린다.
+@DirtiesContext
 class MemberTest {
 
   @PersistenceContext
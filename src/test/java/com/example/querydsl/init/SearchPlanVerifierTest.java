@@ -0,0 +1,68 @@
+package com.example.querydsl.init;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.repository.MemberSearchTemplates;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class SearchPlanVerifierTest {
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  MemberSearchTemplates memberSearchTemplates;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  SearchPlanVerifier searchPlanVerifier;
+
+  @BeforeEach
+  void setUp() {
+    for (String name : new String[]{"teamA", "teamB"}) {
+      Team team = new Team(name);
+      entityManager.persist(team);
+      for (int i = 0; i < 10; i++) {
+        entityManager.persist(new Member(name + "member" + i, i * 5, team));
+      }
+    }
+    entityManager.flush();
+    entityManager.clear();
+    searchPlanVerifier = new SearchPlanVerifier(jdbcTemplate, memberSearchTemplates, transactionManager, "warn");
+  }
+
+  @Test
+  void explainSqlGeneratedByHibernate() {
+    Map<String, SearchPlanVerifier.Plan> plans = searchPlanVerifier.plans();
+
+    assertThat(plans).containsOnlyKeys("username", "usernamePrefix", "teamName", "teamName+ageGoe+ageLoe");
+    // 손으로 쓴 SQL이 아니라 바인딩 파라미터가 남은 Hibernate SQL
+    assertThat(plans.values()).allSatisfy(plan -> {
+      assertThat(plan.sql()).contains("?").doesNotContain("teamA").doesNotContain("member1");
+      assertThat(plan.plan()).isNotBlank();
+    });
+    assertThat(plans.get("teamName").sql()).containsIgnoringCase("join team");
+    assertThat(plans.get("username").plan()).containsIgnoringCase("idx_member_username");
+    assertThat(plans.get("usernamePrefix").plan()).containsIgnoringCase("idx_member_username");
+    assertThat(plans.get("teamName").plan()).containsIgnoringCase("idx_team_name");
+    assertThat(plans.get("teamName+ageGoe+ageLoe").plan()).containsIgnoringCase("idx_team_name");
+  }
+
+}
@@ -0,0 +1,121 @@
+package com.example.querydsl.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.repository.MemberRepository;
+import com.example.querydsl.repository.MemberTestRepository;
+import com.example.querydsl.repository.support.CountStrategy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class RepositoryMetricsAspectTest {
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  @Autowired
+  MemberRepository memberRepository;
+
+  @Autowired
+  MemberTestRepository memberTestRepository;
+
+  @BeforeEach
+  void setUp() {
+    Team foo = new Team("foo");
+    entityManager.persist(foo);
+    for (int i = 0; i < 4; i++) {
+      entityManager.persist(new Member("member" + i, 10 * i, foo));
+    }
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  void recordLatencyRowsAndStatementsPerShape() {
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setTeamName("foo");
+    condition.setAgeGoe(20);
+    long timerCount = timer("search", "teamName+ageGoe", "success").count();
+    long statementsCount = summary("repository.query.statements", "search", "teamName+ageGoe").count();
+    double statementsTotal = summary("repository.query.statements", "search", "teamName+ageGoe").totalAmount();
+    double rowsTotal = summary("repository.query.rows", "search", "teamName+ageGoe").totalAmount();
+
+    assertThat(memberRepository.search(condition)).hasSize(2);
+
+    assertThat(timer("search", "teamName+ageGoe", "success").count()).isEqualTo(timerCount + 1);
+    assertThat(summary("repository.query.rows", "search", "teamName+ageGoe").totalAmount())
+        .isEqualTo(rowsTotal + 2);
+    assertThat(summary("repository.query.statements", "search", "teamName+ageGoe").count())
+        .isEqualTo(statementsCount + 1);
+    assertThat(summary("repository.query.statements", "search", "teamName+ageGoe").totalAmount())
+        .isEqualTo(statementsTotal + 1);
+  }
+
+  @Test
+  void recordErrorOutcome() {
+    long errors = timer("searchSlice", "none", "error").count();
+
+    // 리포지토리 예외 변환으로 감싸져 나온다.
+    assertThatThrownBy(() -> memberRepository.searchSlice(new MemberSearchCondition(), null, 0))
+        .isInstanceOf(InvalidDataAccessApiUsageException.class)
+        .hasCauseInstanceOf(IllegalArgumentException.class);
+
+    assertThat(timer("searchSlice", "none", "error").count()).isEqualTo(errors + 1);
+  }
+
+  @Test
+  void tagPageCountWithStrategyUsed() {
+    MemberSearchCondition condition = new MemberSearchCondition();
+    double estimated = pageCount(CountStrategy.ESTIMATED, false).count();
+    double exactSkipped = pageCount(CountStrategy.EXACT, true).count();
+
+    // 2건짜리 페이지 뒤에 더 있으므로 count 실행
+    memberTestRepository.applyPagination(condition, PageRequest.of(0, 2), CountStrategy.ESTIMATED);
+    // 첫 페이지가 전체보다 크면 count 생략
+    memberTestRepository.applyPagination2(condition, PageRequest.of(0, 10));
+
+    assertThat(pageCount(CountStrategy.ESTIMATED, false).count()).isEqualTo(estimated + 1);
+    assertThat(pageCount(CountStrategy.EXACT, true).count()).isEqualTo(exactSkipped + 1);
+  }
+
+  private Timer timer(String method, String shape, String outcome) {
+    return Timer.builder("repository.query")
+        .tags("repository", "MemberRepositoryCustomImpl", "method", method, "shape", shape, "outcome", outcome)
+        .register(meterRegistry);
+  }
+
+  private DistributionSummary summary(String name, String method, String shape) {
+    return DistributionSummary.builder(name)
+        .tags("repository", "MemberRepositoryCustomImpl", "method", method, "shape", shape)
+        .register(meterRegistry);
+  }
+
+  private Counter pageCount(CountStrategy countStrategy, boolean skipped) {
+    return meterRegistry.counter(
+        "repository.page.count",
+        "strategy", countStrategy.name(),
+        "skipped", String.valueOf(skipped)
+    );
+  }
+
+}
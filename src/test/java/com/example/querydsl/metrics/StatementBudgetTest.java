@@ -0,0 +1,61 @@
+package com.example.querydsl.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class StatementBudgetTest {
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  List<Member> members;
+
+  @BeforeEach
+  void setUp() {
+    for (String name : List.of("foo", "bar", "baz", "qux")) {
+      Team team = new Team(name);
+      entityManager.persist(team);
+      entityManager.persist(new Member(name + "Member", 10, team));
+    }
+    entityManager.flush();
+    entityManager.clear();
+
+    members = entityManager
+        .createQuery("select m from Member m", Member.class)
+        .getResultList();
+  }
+
+  @Test
+  void detectRepeatedLazyLoads() {
+    try (StatementBudget budget = StatementBudget.open("test", 100, 2, false)) {
+      members.forEach(member -> member.getTeam().getName());
+
+      assertThat(budget.statements()).isEqualTo(4);
+      assertThat(budget.exceeded()).isTrue();
+      assertThat(budget.repeatedSelects()).hasSize(1);
+    }
+  }
+
+  @Test
+  void rejectRepeatedLazyLoads() {
+    try (StatementBudget budget = StatementBudget.open("test", 100, 2, true)) {
+      assertThatThrownBy(() -> members.forEach(member -> member.getTeam().getName()))
+          .satisfies(e -> assertThat(NestedExceptionUtils.getMostSpecificCause(e))
+              .isInstanceOf(StatementBudgetExceededException.class));
+    }
+  }
+
+}
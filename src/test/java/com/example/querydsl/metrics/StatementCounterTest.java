@@ -0,0 +1,52 @@
+package com.example.querydsl.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.Test;
+
+class StatementCounterTest {
+
+  StatementCounter statementCounter = new StatementCounter();
+
+  @Test
+  void countStatementsOnCurrentThread() {
+    long before = StatementCounter.current();
+
+    statementCounter.inspect("select 1");
+    statementCounter.inspect("select 2");
+
+    assertThat(StatementCounter.current()).isEqualTo(before + 2);
+  }
+
+  @Test
+  void attachedContextCountsIntoCallerAndRestoresWorker() throws Exception {
+    try (ExecutorService executor = Executors.newSingleThreadExecutor();
+        StatementBudget budget = StatementBudget.open("test", 10, 10, false)) {
+      long before = StatementCounter.current();
+      // 작업 스레드 자신의 카운트
+      long workerBefore = CompletableFuture.supplyAsync(() -> {
+        statementCounter.inspect("select worker");
+        return StatementCounter.current();
+      }, executor).get();
+
+      StatementCounter.Context context = StatementCounter.capture();
+      long workerAfter = CompletableFuture.supplyAsync(() -> {
+        try (StatementCounter.Scope ignored = context.attach()) {
+          statementCounter.inspect("select a");
+          statementCounter.inspect("select b");
+          assertThat(StatementBudget.current()).isSameAs(budget);
+        }
+        assertThat(StatementBudget.current()).isNull();
+        return StatementCounter.current();
+      }, executor).get();
+
+      assertThat(StatementCounter.current()).isEqualTo(before + 2);
+      assertThat(budget.statements()).isEqualTo(2);
+      assertThat(workerAfter).isEqualTo(workerBefore);
+    }
+  }
+
+}
@@ -0,0 +1,95 @@
+package com.example.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.metrics.StatementBudget;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// chunk 동시 조회는 호출자 트랜잭션 밖에서만 일어나므로 데이터를 직접 커밋하고 chunk 크기를 줄여서 확인한다.
+@SpringBootTest(properties = "querydsl.batch-lookup.chunk-size=4")
+class MemberBatchLookupTest {
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  @Autowired
+  MemberRepository memberRepository;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  TransactionTemplate transactionTemplate;
+  Long teamId;
+  List<Long> memberIds = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.executeWithoutResult(status -> {
+      Team team = new Team("batchLookup");
+      entityManager.persist(team);
+      for (int i = 0; i < 10; i++) {
+        Member member = new Member("lookup" + i, i, team);
+        entityManager.persist(member);
+        memberIds.add(member.getId());
+      }
+      teamId = team.getId();
+    });
+  }
+
+  @AfterEach
+  void tearDown() {
+    transactionTemplate.executeWithoutResult(status -> {
+      entityManager.createQuery("delete from Member m where m.team.id = :teamId")
+          .setParameter("teamId", teamId)
+          .executeUpdate();
+      entityManager.createQuery("delete from Team t where t.id = :teamId")
+          .setParameter("teamId", teamId)
+          .executeUpdate();
+    });
+  }
+
+  @Test
+  void lookupChunksConcurrentlyOutsideTransaction() {
+    double parallel = meterRegistry.counter("repository.parallel-query", "mode", "parallel").count();
+    List<Long> keys = new ArrayList<>(memberIds);
+    keys.add(-1L);
+
+    try (StatementBudget budget = StatementBudget.open("test", 100, 5, false)) {
+      List<MemberTeamDto> found = memberRepository.findAllByIds(keys);
+
+      assertThat(found)
+          .extracting("memberId")
+          .containsExactlyInAnyOrderElementsOf(memberIds);
+      assertThat(found).allMatch(row -> "batchLookup".equals(row.getTeamName()));
+      // 11개 키 -> 4, 4, 4(3개 + 패딩) chunk, 각 chunk의 SQL도 호출한 요청에 집계된다.
+      assertThat(budget.statements()).isEqualTo(3);
+    }
+    assertThat(meterRegistry.counter("repository.parallel-query", "mode", "parallel").count())
+        .isGreaterThan(parallel);
+
+    List<String> usernames = IntStream.range(0, 10).mapToObj(i -> "lookup" + i).toList();
+    assertThat(memberRepository.findAllByUsernames(usernames))
+        .extracting("username")
+        .containsExactlyInAnyOrderElementsOf(usernames);
+  }
+
+}
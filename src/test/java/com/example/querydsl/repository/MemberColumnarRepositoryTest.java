@@ -0,0 +1,81 @@
+package com.example.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamColumns;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class MemberColumnarRepositoryTest {
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  @Autowired
+  MemberColumnarRepository memberColumnarRepository;
+
+  @Test
+  void searchColumns() {
+    Team foo = new Team("foo");
+    Team bar = new Team("bar");
+    entityManager.persist(foo);
+    entityManager.persist(bar);
+
+    entityManager.persist(new Member("baz", 10, foo));
+    entityManager.persist(new Member("qux", 20, foo));
+    entityManager.persist(new Member("quux", 30, bar));
+    entityManager.persist(new Member("corge", 40, null));
+    entityManager.flush();
+
+    MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+    memberSearchCondition.setAgeGoe(20);
+
+    MemberTeamColumns columns = memberColumnarRepository.searchColumns(memberSearchCondition);
+
+    assertThat(columns.getSize()).isEqualTo(3);
+    assertThat(columns.getTeamNames()).containsExactlyInAnyOrder("foo", "bar");
+    assertThat(columns.getUsernames()).containsExactlyInAnyOrder("qux", "quux", "corge");
+    for (int row = 0; row < columns.getSize(); row++) {
+      if ("corge".equals(columns.getUsernames()[row])) {
+        assertThat(columns.getTeamCodes()[row]).isEqualTo(MemberTeamColumns.NO_TEAM);
+        assertThat(columns.teamName(row)).isNull();
+      } else {
+        assertThat(columns.toDto(row).getTeamId()).isNotNull();
+      }
+    }
+  }
+
+  @Test
+  void searchColumnsByUsernamePrefixAndContains() {
+    entityManager.persist(new Member("qux", 10, null));
+    entityManager.persist(new Member("quux", 20, null));
+    entityManager.persist(new Member("q_ux", 30, null));
+    entityManager.persist(new Member("baz", 40, null));
+    entityManager.flush();
+
+    MemberSearchCondition prefix = new MemberSearchCondition();
+    prefix.setUsernamePrefix("qu");
+    assertThat(memberColumnarRepository.searchColumns(prefix).getUsernames())
+        .containsExactlyInAnyOrder("qux", "quux");
+
+    // _는 와일드카드가 아닌 문자로 비교
+    MemberSearchCondition contains = new MemberSearchCondition();
+    contains.setUsernameContains("_u");
+    assertThat(memberColumnarRepository.searchColumns(contains).getUsernames())
+        .containsExactly("q_ux");
+
+    contains.setUsernameContains("ux");
+    assertThat(memberColumnarRepository.searchColumns(contains).getUsernames())
+        .containsExactlyInAnyOrder("qux", "quux", "q_ux");
+  }
+
+}
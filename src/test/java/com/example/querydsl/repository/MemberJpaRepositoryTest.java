@@ -10,6 +10,7 @@ import com.example.querydsl.entity.Team;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import java.util.List;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -82,4 +83,29 @@ class MemberJpaRepositoryTest {
         .containsExactly("corge");
   }
 
+  @Test
+  void streamTest() {
+    Team foo = new Team("foo");
+    Team bar = new Team("bar");
+    entityManager.persist(foo);
+    entityManager.persist(bar);
+
+    Member baz = new Member("baz", 10, foo);
+    Member qux = new Member("qux", 20, foo);
+    Member quux = new Member("quux", 30, bar);
+    Member corge = new Member("corge", 40, bar);
+    entityManager.persist(baz);
+    entityManager.persist(qux);
+    entityManager.persist(quux);
+    entityManager.persist(corge);
+
+    MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+    memberSearchCondition.setTeamName("bar");
+
+    try (Stream<MemberTeamDto> stream = memberJpaRepository.streamByWhere(memberSearchCondition, 2)) {
+      assertThat(stream.map(MemberTeamDto::getUsername))
+          .containsExactlyInAnyOrder("quux", "corge");
+    }
+  }
+
 }
\ No newline at end of file
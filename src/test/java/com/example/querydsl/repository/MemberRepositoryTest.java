@@ -2,20 +2,26 @@ package com.example.querydsl.repository;
 
 import static com.example.querydsl.entity.QMember.*;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.example.querydsl.dto.MemberSearchCondition;
 import com.example.querydsl.dto.MemberTeamDto;
 import com.example.querydsl.entity.Member;
 import com.example.querydsl.entity.QMember;
 import com.example.querydsl.entity.Team;
+import com.example.querydsl.repository.support.CountStrategy;
+import com.example.querydsl.repository.support.CountedPage;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.transaction.annotation.Transactional;
 
 @SpringBootTest
@@ -28,6 +34,9 @@ class MemberRepositoryTest {
   @Autowired
   MemberRepository memberRepository;
 
+  @Autowired
+  MeterRegistry meterRegistry;
+
   @Test
   void basicTest() {
     Member member = new Member("foo", 10, null);
@@ -70,6 +79,93 @@ class MemberRepositoryTest {
         .containsExactly("corge");
   }
 
+  @Test
+  void searchUsernamePrefixAndContains() {
+    Team foo = new Team("foo");
+    entityManager.persist(foo);
+    entityManager.persist(new Member("quux", 10, foo));
+    entityManager.persist(new Member("qux", 20, foo));
+    entityManager.persist(new Member("corge", 30, foo));
+    entityManager.persist(new Member("100%", 40, foo));
+
+    MemberSearchCondition prefix = new MemberSearchCondition();
+    prefix.setUsernamePrefix("qu");
+    assertThat(memberRepository.search(prefix))
+        .extracting("username")
+        .containsExactlyInAnyOrder("quux", "qux");
+
+    MemberSearchCondition contains = new MemberSearchCondition();
+    contains.setUsernameContains("uu");
+    assertThat(memberRepository.search(contains))
+        .extracting("username")
+        .containsExactly("quux");
+
+    contains.setUsernameContains("orge");
+    assertThat(memberRepository.searchPageSimple(contains, PageRequest.of(0, 10)).getContent())
+        .extracting("username")
+        .containsExactly("corge");
+
+    // LIKE 와일드카드는 문자 그대로 검색
+    contains.setUsernameContains("0%");
+    assertThat(memberRepository.search(contains))
+        .extracting("username")
+        .containsExactly("100%");
+
+    contains.setUsernameContains("xyz");
+    assertThat(memberRepository.search(contains)).isEmpty();
+  }
+
+  @Test
+  void findAllByIdsAndUsernames() {
+    Team foo = new Team("foo");
+    entityManager.persist(foo);
+    Member baz = new Member("baz", 10, foo);
+    Member qux = new Member("qux", 20, foo);
+    Member quux = new Member("quux", 30, null);
+    entityManager.persist(baz);
+    entityManager.persist(qux);
+    entityManager.persist(quux);
+
+    assertThat(memberRepository.findAllByIds(List.of(baz.getId(), quux.getId(), baz.getId(), -1L)))
+        .extracting("username")
+        .containsExactlyInAnyOrder("baz", "quux");
+
+    assertThat(memberRepository.findAllByUsernames(List.of("qux", "quux", "corge")))
+        .extracting("username")
+        .containsExactlyInAnyOrder("qux", "quux");
+
+    assertThat(memberRepository.findAllByIds(List.of())).isEmpty();
+  }
+
+  @Test
+  void searchTemplateCache() {
+    Team foo = new Team("foo");
+    entityManager.persist(foo);
+    entityManager.persist(new Member("baz", 10, foo));
+    entityManager.persist(new Member("qux", 20, foo));
+
+    MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+    memberSearchCondition.setTeamName("foo");
+    memberSearchCondition.setAgeGoe(15);
+
+    double hitsBefore = templateCount("hit");
+    double missesBefore = templateCount("miss");
+    assertThat(memberRepository.search(memberSearchCondition))
+        .extracting("username")
+        .containsExactly("qux");
+
+    memberSearchCondition.setAgeGoe(5);
+    assertThat(memberRepository.search(memberSearchCondition))
+        .extracting("username")
+        .containsExactlyInAnyOrder("baz", "qux");
+
+    double hits = templateCount("hit");
+    double misses = templateCount("miss");
+    assertThat(hits + misses).isEqualTo(hitsBefore + missesBefore + 2);
+    assertThat(hits).isGreaterThan(hitsBefore);
+    assertThat(meterRegistry.get("repository.search.template.size").gauge().value()).isPositive();
+  }
+
   @Test
   void searchPageSimple() {
     Team foo = new Team("foo");
@@ -92,9 +188,104 @@ class MemberRepositoryTest {
         .searchPageSimple(memberSearchCondition, pageRequest);
 
     assertThat(page).hasSize(3);
+    assertThat(page.getTotalElements()).isEqualTo(4);
     assertThat(page.getContent())
         .extracting("username")
         .containsExactly("baz", "qux", "quux");
+
+    Page<MemberTeamDto> beyondLastPage = memberRepository
+        .searchPageSimple(memberSearchCondition, PageRequest.of(5, 3));
+
+    assertThat(beyondLastPage.getContent()).isEmpty();
+    assertThat(beyondLastPage.getTotalElements()).isEqualTo(4);
+  }
+
+  @Test
+  void searchPageComplexWithCountStrategy() {
+    Team foo = new Team("foo");
+    Team bar = new Team("bar");
+    entityManager.persist(foo);
+    entityManager.persist(bar);
+
+    Member baz = new Member("baz", 10, foo);
+    Member qux = new Member("qux", 20, foo);
+    Member quux = new Member("quux", 30, bar);
+    Member corge = new Member("corge", 40, bar);
+    entityManager.persist(baz);
+    entityManager.persist(qux);
+    entityManager.persist(quux);
+    entityManager.persist(corge);
+
+    MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+    PageRequest pageRequest = PageRequest.of(0, 2);
+
+    for (CountStrategy countStrategy : CountStrategy.values()) {
+      Page<MemberTeamDto> page = memberRepository
+          .searchPageComplex(memberSearchCondition, pageRequest, countStrategy);
+
+      assertThat(page.getTotalElements()).isEqualTo(4);
+      assertThat(page).isInstanceOf(CountedPage.class);
+      assertThat(((CountedPage<MemberTeamDto>) page).getCountStrategy()).isEqualTo(countStrategy);
+      assertThat(((CountedPage<MemberTeamDto>) page).isTotalCapped()).isFalse();
+    }
+  }
+
+  @Test
+  void searchSlice() {
+    Team foo = new Team("foo");
+    Team bar = new Team("bar");
+    entityManager.persist(foo);
+    entityManager.persist(bar);
+
+    Member baz = new Member("baz", 10, foo);
+    Member qux = new Member("qux", 20, foo);
+    Member quux = new Member("quux", 30, bar);
+    Member corge = new Member("corge", 40, bar);
+    entityManager.persist(baz);
+    entityManager.persist(qux);
+    entityManager.persist(quux);
+    entityManager.persist(corge);
+
+    MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+    Slice<MemberTeamDto> first = memberRepository
+        .searchSlice(memberSearchCondition, null, 3);
+
+    assertThat(first.hasNext()).isTrue();
+    assertThat(first.getContent())
+        .extracting("username")
+        .containsExactly("baz", "qux", "quux");
+
+    Long lastMemberId = first.getContent().get(2).getMemberId();
+    Slice<MemberTeamDto> second = memberRepository
+        .searchSlice(memberSearchCondition, lastMemberId, 3);
+
+    assertThat(second.hasNext()).isFalse();
+    assertThat(second.getContent())
+        .extracting("username")
+        .containsExactly("corge");
+  }
+
+  @Test
+  void searchSliceSizeEdgeCases() {
+    Team foo = new Team("foo");
+    entityManager.persist(foo);
+    entityManager.persist(new Member("baz", 10, foo));
+    entityManager.persist(new Member("qux", 20, foo));
+
+    MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+    Slice<MemberTeamDto> all = memberRepository
+        .searchSlice(memberSearchCondition, null, Integer.MAX_VALUE);
+
+    assertThat(all.hasNext()).isFalse();
+    assertThat(all.getContent())
+        .extracting("username")
+        .containsExactly("baz", "qux");
+
+    for (int size : new int[]{0, -1}) {
+      assertThatThrownBy(() -> memberRepository.searchSlice(memberSearchCondition, null, size))
+          .satisfies(e -> assertThat(NestedExceptionUtils.getMostSpecificCause(e))
+              .isInstanceOf(IllegalArgumentException.class));
+    }
   }
 
   @Test
@@ -123,4 +314,8 @@ class MemberRepositoryTest {
     }
   }
 
+  private double templateCount(String result) {
+    return meterRegistry.get("repository.search.template").tag("result", result).functionCounter().count();
+  }
+
 }
@@ -0,0 +1,112 @@
+package com.example.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.repository.support.CountStrategy;
+import com.example.querydsl.repository.support.CountedPage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class MemberTestRepositoryTest {
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  @Autowired
+  MemberTestRepository memberTestRepository;
+
+  @BeforeEach
+  void setUp() {
+    Team foo = new Team("foo");
+    Team bar = new Team("bar");
+    entityManager.persist(foo);
+    entityManager.persist(bar);
+
+    entityManager.persist(new Member("baz", 10, foo));
+    entityManager.persist(new Member("qux", 20, foo));
+    entityManager.persist(new Member("quux", 30, bar));
+    entityManager.persist(new Member("corge", 40, bar));
+
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  void basicSelectWithTeam() {
+    List<Member> members = memberTestRepository.basicSelectWithTeam();
+
+    assertThat(members).hasSize(4);
+    assertThat(members).allMatch(member -> Hibernate.isInitialized(member.getTeam()));
+  }
+
+  @Test
+  void applyPaginationWithTeam() {
+    Page<Member> page = memberTestRepository
+        .applyPaginationWithTeam(new MemberSearchCondition(), PageRequest.of(0, 3));
+
+    assertThat(page.getContent()).hasSize(3);
+    assertThat(page.getTotalElements()).isEqualTo(4);
+    assertThat(page.getContent()).allMatch(member -> Hibernate.isInitialized(member.getTeam()));
+  }
+
+  @Test
+  void applyPaginationWithCountStrategy() {
+    MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+    memberSearchCondition.setAgeGoe(20);
+
+    for (CountStrategy countStrategy : CountStrategy.values()) {
+      Page<Member> page = memberTestRepository
+          .applyPagination(memberSearchCondition, PageRequest.of(0, 2), countStrategy);
+
+      assertThat(page).isInstanceOf(CountedPage.class);
+      assertThat(((CountedPage<Member>) page).getCountStrategy()).isEqualTo(countStrategy);
+      assertThat(((CountedPage<Member>) page).isTotalCapped()).isFalse();
+      assertThat(page.getContent()).hasSize(2);
+      assertThat(page.getTotalElements()).isEqualTo(3);
+    }
+  }
+
+  @Test
+  void readOnlySelectFrom() {
+    List<Member> members = memberTestRepository.readOnlySelectFrom();
+    Session session = entityManager.unwrap(Session.class);
+
+    assertThat(members).hasSize(4);
+    assertThat(members).allMatch(session::isReadOnly);
+
+    // read-only 엔티티는 dirty checking 대상이 아니므로 수정해도 반영되지 않는다.
+    Member member = members.get(0);
+    member.setUsername("changed");
+    entityManager.flush();
+    entityManager.clear();
+
+    assertThat(entityManager.find(Member.class, member.getId()).getUsername()).isNotEqualTo("changed");
+  }
+
+  @Test
+  void applyReadOnlyPagination() {
+    Page<Member> page = memberTestRepository
+        .applyReadOnlyPagination(new MemberSearchCondition(), PageRequest.of(0, 3));
+    Session session = entityManager.unwrap(Session.class);
+
+    assertThat(page.getContent()).hasSize(3);
+    assertThat(page.getTotalElements()).isEqualTo(4);
+    assertThat(page.getContent()).allMatch(session::isReadOnly);
+  }
+
+}
@@ -0,0 +1,152 @@
+package com.example.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class MemberUsernameIndexTest {
+
+  JdbcTemplate jdbcTemplate;
+  MemberUsernameIndex memberUsernameIndex;
+  Runnable duringRebuild = () -> {
+  };
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+        "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "")) {
+      @Override
+      public void query(String sql, RowCallbackHandler rch) {
+        duringRebuild.run();
+        super.query(sql, rch);
+      }
+    };
+    jdbcTemplate.execute("create table member (member_id bigint primary key, username varchar(255))");
+    memberUsernameIndex = new MemberUsernameIndex(jdbcTemplate, 2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.execute("shutdown");
+  }
+
+  @Test
+  void candidates() {
+    memberUsernameIndex.rebuild();
+    memberUsernameIndex.onWrite(1L, "member1");
+    memberUsernameIndex.onWrite(2L, "member2");
+    memberUsernameIndex.onWrite(3L, "team3");
+
+    assertThat(memberUsernameIndex.candidates("mem")).containsExactly(1L, 2L);
+    assertThat(memberUsernameIndex.candidates("ber2")).containsExactly(2L);
+    assertThat(memberUsernameIndex.candidates("3")).containsExactly(3L);
+    assertThat(memberUsernameIndex.candidates("nothing")).isEmpty();
+
+    // 후보가 maxCandidates를 넘으면 인덱스를 쓰지 않는다.
+    assertThat(memberUsernameIndex.candidates("m")).isNull();
+  }
+
+  @Test
+  void rename() {
+    memberUsernameIndex.rebuild();
+    memberUsernameIndex.onWrite(1L, "member1");
+    memberUsernameIndex.onWrite(1L, "renamed");
+
+    assertThat(memberUsernameIndex.candidates("member")).isEmpty();
+    assertThat(memberUsernameIndex.candidates("renamed")).containsExactly(1L);
+
+    memberUsernameIndex.onRemove(1L);
+    assertThat(memberUsernameIndex.candidates("renamed")).isEmpty();
+  }
+
+  @Test
+  void nullUsername() {
+    memberUsernameIndex.rebuild();
+    memberUsernameIndex.onWrite(1L, null);
+    memberUsernameIndex.onWrite(2L, "member2");
+    memberUsernameIndex.onWrite(2L, null);
+
+    assertThat(memberUsernameIndex.candidates("member")).isEmpty();
+    assertThat(memberUsernameIndex.candidates("m")).isEmpty();
+  }
+
+  @Test
+  void keepServingWhileRebuilding() {
+    jdbcTemplate.update("insert into member values (1, 'member1')");
+    memberUsernameIndex.rebuild();
+
+    duringRebuild = () -> {
+      // 새 인덱스를 만드는 동안에도 이전 인덱스로 후보를 준다.
+      assertThat(memberUsernameIndex.candidates("member1")).containsExactly(1L);
+      // 그 사이의 쓰기는 새 인덱스에도 들어간다.
+      memberUsernameIndex.onWrite(2L, "member2");
+      assertThat(memberUsernameIndex.candidates("member2")).containsExactly(2L);
+    };
+    memberUsernameIndex.rebuild();
+
+    assertThat(memberUsernameIndex.candidates("member")).containsExactly(1L, 2L);
+  }
+
+  @Test
+  void fallBackToLikeUntilLoaded() {
+    jdbcTemplate.update("insert into member values (1, 'member1')");
+
+    // 로딩 전에는 비어 있는 인덱스 대신 LIKE
+    assertThat(memberUsernameIndex.candidates("member1")).isNull();
+
+    memberUsernameIndex.rebuild();
+    assertThat(memberUsernameIndex.candidates("member1")).containsExactly(1L);
+  }
+
+  @Test
+  void rebuildAfterMemberBulkOperation() {
+    jdbcTemplate.update("insert into member values (1, 'member1')");
+    memberUsernameIndex.rebuild();
+
+    memberUsernameIndex.beforeBulk(Member.class);
+    jdbcTemplate.update("update member set username = 'renamed1' where member_id = 1");
+    // 벌크 연산 중에는 리스너를 거치지 않은 변경이 있을 수 있으므로 LIKE
+    assertThat(memberUsernameIndex.candidates("renamed")).isNull();
+    memberUsernameIndex.afterBulk(Member.class);
+
+    assertThat(memberUsernameIndex.candidates("renamed")).containsExactly(1L);
+    assertThat(memberUsernameIndex.candidates("member")).isEmpty();
+
+    // 다른 엔티티의 벌크 연산은 영향 없음
+    memberUsernameIndex.beforeBulk(Team.class);
+    assertThat(memberUsernameIndex.isUsable()).isTrue();
+    memberUsernameIndex.afterBulk(Team.class);
+  }
+
+  @Test
+  void keepUncommittedWritesAcrossRebuild() {
+    memberUsernameIndex.rebuild();
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      // flush는 됐지만 아직 커밋되지 않아 DB를 다시 읽어도 보이지 않는 쓰기
+      memberUsernameIndex.onWrite(5L, "pending5");
+      memberUsernameIndex.rebuild();
+
+      assertThat(memberUsernameIndex.candidates("pending5")).containsExactly(5L);
+
+      jdbcTemplate.update("insert into member values (5, 'pending5')");
+      TransactionSynchronizationManager.getSynchronizations()
+          .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    memberUsernameIndex.rebuild();
+    assertThat(memberUsernameIndex.candidates("pending5")).containsExactly(5L);
+  }
+
+}
@@ -0,0 +1,189 @@
+package com.example.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.repository.support.EntityChange;
+import com.example.querydsl.repository.support.PageResultCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 페이지 캐시는 커밋된 변경으로만 무효화되므로 @Transactional 대신 직접 커밋하고 정리한다.
+@SpringBootTest
+class PageResultCacheIntegrationTest {
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  @Autowired
+  MemberRepository memberRepository;
+
+  @Autowired
+  MemberTestRepository memberTestRepository;
+
+  @Autowired
+  PageResultCache pageResultCache;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  TransactionTemplate transactionTemplate;
+  Long teamAId;
+  Long teamBId;
+
+  @BeforeEach
+  void setUp() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.executeWithoutResult(status -> {
+      Team teamA = new Team("cacheTeamA");
+      Team teamB = new Team("cacheTeamB");
+      entityManager.persist(teamA);
+      entityManager.persist(teamB);
+      entityManager.persist(new Member("cacheA1", 10, teamA));
+      entityManager.persist(new Member("cacheA2", 20, teamA));
+      entityManager.persist(new Member("cacheB1", 30, teamB));
+      teamAId = teamA.getId();
+      teamBId = teamB.getId();
+    });
+  }
+
+  @AfterEach
+  void tearDown() {
+    transactionTemplate.executeWithoutResult(status -> {
+      entityManager.createQuery("delete from Member m where m.team.id in :teamIds")
+          .setParameter("teamIds", List.of(teamAId, teamBId))
+          .executeUpdate();
+      entityManager.createQuery("delete from Team t where t.id in :teamIds")
+          .setParameter("teamIds", List.of(teamAId, teamBId))
+          .executeUpdate();
+    });
+    // JPQL 벌크 삭제는 커밋 이벤트가 없으므로 남은 페이지를 직접 비운다.
+    pageResultCache.invalidate(EntityChange.bulk(Member.class));
+  }
+
+  @Test
+  void memberChangeEvictsOnlyMatchingPages() {
+    MemberSearchCondition teamA = teamName("cacheTeamA");
+    MemberSearchCondition teamB = teamName("cacheTeamB");
+    MemberSearchCondition olderThan25 = olderThan(25);
+    search(teamA);
+    search(teamB);
+    search(olderThan25);
+
+    // teamA에 15살 회원 추가: teamA 페이지만 조건에 맞는다.
+    transactionTemplate.executeWithoutResult(status ->
+        entityManager.persist(new Member("cacheA3", 15, entityManager.find(Team.class, teamAId))));
+
+    assertThat(isHit(() -> search(teamB))).isTrue();
+    assertThat(isHit(() -> search(olderThan25))).isTrue();
+    assertThat(isHit(() -> search(teamA))).isFalse();
+    assertThat(search(teamA).getContent())
+        .extracting(MemberTeamDto::getUsername)
+        .containsExactlyInAnyOrder("cacheA1", "cacheA2", "cacheA3");
+  }
+
+  @Test
+  void teamChangeEvictsPagesShowingOrFilteringTheTeam() {
+    MemberSearchCondition teamA = teamName("cacheTeamA");
+    MemberSearchCondition teamB = teamName("cacheTeamB");
+    MemberSearchCondition olderThan25 = olderThan(25);
+    search(teamA);
+    search(teamB);
+    search(olderThan25);
+
+    // teamB 이름 변경: teamName=cacheTeamB 조건 페이지와 cacheB1(teamB)이 나오는 페이지만 영향
+    transactionTemplate.executeWithoutResult(status ->
+        entityManager.find(Team.class, teamBId).setName("cacheTeamB2"));
+
+    assertThat(isHit(() -> search(teamA))).isTrue();
+    assertThat(isHit(() -> search(teamB))).isFalse();
+    assertThat(isHit(() -> search(olderThan25))).isFalse();
+    assertThat(search(olderThan25).getContent())
+        .extracting(MemberTeamDto::getTeamName)
+        .containsExactly("cacheTeamB2");
+  }
+
+  @Test
+  void cachedPaginationIsEvictedByJoinedEntity() {
+    MemberSearchCondition teamA = teamName("cacheTeamA");
+    PageRequest pageable = PageRequest.of(0, 10);
+    memberTestRepository.applyCachedPagination(teamA, pageable);
+    assertThat(isHit(() -> memberTestRepository.applyCachedPagination(teamA, pageable))).isTrue();
+
+    // content 쿼리가 join한 Team의 변경
+    transactionTemplate.executeWithoutResult(status ->
+        entityManager.find(Team.class, teamBId).setName("cacheTeamB2"));
+
+    assertThat(isHit(() -> memberTestRepository.applyCachedPagination(teamA, pageable))).isFalse();
+  }
+
+  @Test
+  void cachedQueriesWithSameConditionDoNotShareEntries() {
+    MemberSearchCondition teamA = teamName("cacheTeamA");
+    PageRequest pageable = PageRequest.of(0, 10);
+    memberTestRepository.applyCachedPagination(teamA, pageable);
+
+    // 조건과 pageable이 같아도 다른 쿼리의 페이지를 돌려주지 않는다.
+    assertThat(isHit(() -> memberTestRepository.applyCachedUsernamePagination(teamA, pageable))).isFalse();
+    assertThat(memberTestRepository.applyCachedUsernamePagination(teamA, pageable).getContent())
+        .containsExactlyInAnyOrder("cacheA1", "cacheA2");
+    assertThat(memberTestRepository.applyCachedPagination(teamA, pageable).getContent())
+        .extracting(MemberTeamDto::getUsername)
+        .containsExactlyInAnyOrder("cacheA1", "cacheA2");
+  }
+
+  @Test
+  void callersGetTheirOwnCopy() {
+    MemberSearchCondition teamB = teamName("cacheTeamB");
+    Page<MemberTeamDto> first = search(teamB);
+    first.getContent().get(0).setUsername("changed");
+
+    Page<MemberTeamDto> second = search(teamB);
+
+    assertThat(second.getContent()).extracting(MemberTeamDto::getUsername).containsExactly("cacheB1");
+    assertThat(second.getContent().get(0)).isNotSameAs(first.getContent().get(0));
+  }
+
+  private Page<MemberTeamDto> search(MemberSearchCondition condition) {
+    return memberRepository.searchPageComplex(condition, PageRequest.of(0, 10));
+  }
+
+  private boolean isHit(Supplier<?> call) {
+    double hits = meterRegistry.counter("repository.page-cache", "result", "hit").count();
+    call.get();
+    return meterRegistry.counter("repository.page-cache", "result", "hit").count() > hits;
+  }
+
+  private static MemberSearchCondition teamName(String teamName) {
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setTeamName(teamName);
+    return condition;
+  }
+
+  // 다른 테스트 데이터와 섞이지 않도록 cache로 시작하는 회원만
+  private static MemberSearchCondition olderThan(int age) {
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setUsernamePrefix("cache");
+    condition.setAgeGoe(age);
+    return condition;
+  }
+
+}
@@ -0,0 +1,106 @@
+package com.example.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+class ShardedMemberRepositoryTest {
+
+  ShardedMemberRepository shardedMemberRepository;
+  List<MemberTeamDto> all;
+
+  @BeforeEach
+  void before() {
+    ResourceDatabasePopulator schema = new ResourceDatabasePopulator(new ClassPathResource("db/shard-schema.sql"));
+    List<DataSource> shards = new ArrayList<>();
+    String name = UUID.randomUUID().toString();
+    for (int i = 0; i < 3; i++) {
+      DataSource shard = new DriverManagerDataSource("jdbc:h2:mem:" + name + "-" + i + ";DB_CLOSE_DELAY=-1", "sa", "");
+      DatabasePopulatorUtils.execute(schema, shard);
+      shards.add(shard);
+    }
+    shardedMemberRepository = new ShardedMemberRepository(shards);
+
+    // 팀 5개 + 팀 없는 member 몇 명
+    all = IntStream.range(0, 50)
+        .mapToObj(i -> i % 10 == 9
+            ? new MemberTeamDto(i + 1L, "member" + i, i % 7, null, null)
+            : new MemberTeamDto(i + 1L, "member" + i, i % 7, (long) (i % 5) + 1, "team" + (i % 5)))
+        .toList();
+    shardedMemberRepository.saveAll(all);
+  }
+
+  @AfterEach
+  void after() throws Exception {
+    shardedMemberRepository.close();
+  }
+
+  @Test
+  void searchAcrossShards() {
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setTeamName("team2");
+    condition.setAgeGoe(3);
+
+    List<MemberTeamDto> result = shardedMemberRepository.search(condition);
+
+    assertThat(result).containsExactlyElementsOf(all.stream()
+        .filter(row -> "team2".equals(row.getTeamName()) && row.getAge() >= 3)
+        .toList());
+    assertThat(shardedMemberRepository.search(new MemberSearchCondition())).containsExactlyElementsOf(all);
+  }
+
+  @Test
+  void mergedPagesMatchSingleDatabaseOrder() {
+    for (Sort sort : List.of(
+        Sort.unsorted(),
+        Sort.by(Sort.Order.desc("age")),
+        Sort.by(Sort.Order.asc("teamName"), Sort.Order.desc("username"))
+    )) {
+      List<MemberTeamDto> expected = all.stream()
+          .sorted(ShardedMemberRepository.comparator(sort))
+          .toList();
+
+      List<MemberTeamDto> paged = new ArrayList<>();
+      for (int page = 0; page < 6; page++) {
+        Page<MemberTeamDto> result = shardedMemberRepository.searchPageComplex(
+            new MemberSearchCondition(),
+            PageRequest.of(page, 9, sort)
+        );
+        assertThat(result.getTotalElements()).isEqualTo(all.size());
+        paged.addAll(result.getContent());
+      }
+
+      assertThat(paged).containsExactlyElementsOf(expected);
+    }
+  }
+
+  @Test
+  void teamRowsStayOnMemberShard() {
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setUsernamePrefix("member1");
+
+    Page<MemberTeamDto> result = shardedMemberRepository.searchPageComplex(condition, PageRequest.of(0, 20));
+
+    assertThat(result.getTotalElements()).isEqualTo(11);
+    assertThat(result.getContent())
+        .filteredOn(row -> row.getTeamId() != null)
+        .allSatisfy(row -> assertThat(row.getTeamName()).isEqualTo("team" + (row.getTeamId() - 1)));
+  }
+
+}
@@ -0,0 +1,162 @@
+package com.example.querydsl.repository;
+
+import static com.example.querydsl.entity.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.querydsl.config.ShardingProperties;
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamColumns;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.dto.TeamStatsDto;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.repository.support.ChunkedBulkOperations;
+import com.example.querydsl.service.MemberExportService;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * in-memory H2 shard 세 개로 띄운 컨텍스트 (primary에는 member가 없음)
+ * member 읽기는 모두 shard를 보고, JPA 쓰기는 실패해야 한다.
+ */
+@SpringBootTest(properties = {
+    "querydsl.sharding.enabled=true",
+    "querydsl.sharding.urls[0]=jdbc:h2:mem:shard-${random.uuid};DB_CLOSE_DELAY=-1",
+    "querydsl.sharding.urls[1]=jdbc:h2:mem:shard-${random.uuid};DB_CLOSE_DELAY=-1",
+    "querydsl.sharding.urls[2]=jdbc:h2:mem:shard-${random.uuid};DB_CLOSE_DELAY=-1"
+})
+class ShardedMemberRoutingTest {
+
+  @Autowired
+  ShardedMemberRepository shardedMemberRepository;
+
+  @Autowired
+  ShardingProperties shardingProperties;
+
+  @Autowired
+  MemberRepository memberRepository;
+
+  @Autowired
+  MemberJpaRepository memberJpaRepository;
+
+  @Autowired
+  MemberExportService memberExportService;
+
+  @Autowired
+  MemberColumnarRepository memberColumnarRepository;
+
+  @Autowired
+  TeamStatsRepository teamStatsRepository;
+
+  @Autowired
+  ChunkedBulkOperations chunkedBulkOperations;
+
+  List<MemberTeamDto> all;
+
+  @BeforeEach
+  void setUp() {
+    // 팀 3개 + 팀 없는 member 3명
+    all = IntStream.range(0, 30)
+        .mapToObj(i -> i % 10 == 9
+            ? new MemberTeamDto(i + 1L, "member" + i, i, null, null)
+            : new MemberTeamDto(i + 1L, "member" + i, i, (long) (i % 3) + 1, "team" + (i % 3)))
+        .toList();
+    shardedMemberRepository.saveAll(all);
+  }
+
+  @AfterEach
+  void tearDown() {
+    for (String url : shardingProperties.urls()) {
+      JdbcTemplate shard = new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+      shard.update("delete from member");
+      shard.update("delete from team");
+    }
+  }
+
+  @Test
+  void pagesAndSlicesReadShards() {
+    MemberSearchCondition condition = new MemberSearchCondition();
+
+    Page<MemberTeamDto> page = memberRepository.searchPageSimple(condition, PageRequest.of(1, 10));
+    assertThat(page.getTotalElements()).isEqualTo(30);
+    assertThat(page.getContent()).containsExactlyElementsOf(all.subList(10, 20));
+
+    Slice<MemberTeamDto> first = memberRepository.searchSlice(condition, null, 10);
+    assertThat(first.getContent()).containsExactlyElementsOf(all.subList(0, 10));
+    assertThat(first.hasNext()).isTrue();
+
+    Slice<MemberTeamDto> last = memberRepository.searchSlice(condition, 25L, 10);
+    assertThat(last.getContent()).containsExactlyElementsOf(all.subList(25, 30));
+    assertThat(last.hasNext()).isFalse();
+  }
+
+  @Test
+  void lookupsAndSearchReadShards() {
+    assertThat(memberRepository.findAllByIds(List.of(30L, 2L, 2L, 99L)))
+        .extracting(MemberTeamDto::getMemberId)
+        .containsExactly(2L, 30L);
+    assertThat(memberRepository.findAllByUsernames(List.of("member9", "member4")))
+        .extracting(MemberTeamDto::getMemberId)
+        .containsExactly(5L, 10L);
+
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setTeamName("team1");
+    condition.setAgeGoe(0);
+    condition.setAgeLoe(100);
+    assertThat(memberJpaRepository.searchByWhere(condition))
+        .containsExactlyElementsOf(all.stream().filter(row -> "team1".equals(row.getTeamName())).toList());
+  }
+
+  @Test
+  void exportAndColumnsReadShards() throws Exception {
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setAgeGoe(20);
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    long rows = memberExportService.exportNdjson(condition, outputStream);
+    String ndjson = outputStream.toString(StandardCharsets.UTF_8);
+    assertThat(rows).isEqualTo(10);
+    assertThat(ndjson.lines()).hasSize(10);
+    assertThat(ndjson).contains("\"username\":\"member29\"");
+
+    MemberTeamColumns columns = memberColumnarRepository.searchColumns(condition);
+    assertThat(columns.getUsernames()).containsExactlyInAnyOrderElementsOf(
+        all.subList(20, 30).stream().map(MemberTeamDto::getUsername).toList());
+  }
+
+  @Test
+  void teamStatsReconcileReadsShards() {
+    teamStatsRepository.reconcile();
+
+    assertThat(teamStatsRepository.findAll())
+        .extracting(TeamStatsDto::teamId)
+        .containsExactly(1L, 2L, 3L);
+    assertThat(teamStatsRepository.findAll().stream().mapToLong(TeamStatsDto::memberCount).sum())
+        .isEqualTo(27);
+  }
+
+  @Test
+  void jpaWritesFailFast() {
+    assertThatThrownBy(() -> memberRepository.save(new Member("jpaMember", 10, null)))
+        .hasMessageContaining("write through ShardedMemberRepository");
+    assertThatThrownBy(() -> chunkedBulkOperations.delete(member, member.id, null))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("write through ShardedMemberRepository");
+
+    assertThat(memberRepository.count()).isZero();
+    assertThat(shardedMemberRepository.search(new MemberSearchCondition())).hasSize(30);
+  }
+
+}
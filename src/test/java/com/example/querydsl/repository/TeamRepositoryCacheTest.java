@@ -0,0 +1,105 @@
+package com.example.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 2차 캐시/쿼리 캐시는 커밋된 데이터만 담으므로 롤백되는 @Transactional 테스트 대신 직접 커밋한다.
+@SpringBootTest
+@ActiveProfiles("cache")
+class TeamRepositoryCacheTest {
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  @Autowired
+  TeamRepository teamRepository;
+
+  TransactionTemplate transactionTemplate;
+  Statistics statistics;
+  Long teamId;
+
+  @BeforeEach
+  void setUp() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    teamId = transactionTemplate.execute(status -> {
+      Team team = new Team("cached");
+      entityManager.persist(team);
+      return team.getId();
+    });
+    SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    sessionFactory.getCache().evictAllRegions();
+    statistics = sessionFactory.getStatistics();
+    statistics.clear();
+  }
+
+  @AfterEach
+  void tearDown() {
+    transactionTemplate.executeWithoutResult(status -> entityManager
+        .createQuery("delete from Team t where t.id = :id")
+        .setParameter("id", teamId)
+        .executeUpdate());
+  }
+
+  @Test
+  void secondFindByNameIsServedFromQueryCache() {
+    List<Team> first = teamRepository.findByName("cached");
+    assertThat(first).extracting("id").containsExactly(teamId);
+    assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+    assertThat(statistics.getQueryCachePutCount()).isEqualTo(1);
+
+    long statements = statistics.getPrepareStatementCount();
+    List<Team> second = teamRepository.findByName("cached");
+
+    assertThat(second).extracting("id").containsExactly(teamId);
+    assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    assertThat(statistics.getDomainDataRegionStatistics(Team.class.getName()).getHitCount()).isEqualTo(1);
+    // 쿼리 결과(id)와 엔티티 모두 캐시에서 가져오므로 SQL을 실행하지 않는다.
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+  }
+
+  @Test
+  void secondFindByIdIsServedFromSecondLevelCache() {
+    assertThat(teamRepository.findById(teamId)).isPresent();
+    assertThat(statistics.getSecondLevelCacheMissCount()).isEqualTo(1);
+
+    long statements = statistics.getPrepareStatementCount();
+    assertThat(teamRepository.findById(teamId)).get().extracting(Team::getName).isEqualTo("cached");
+
+    assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+  }
+
+  @Test
+  void renameInvalidatesCachedQuery() {
+    teamRepository.findByName("cached");
+    transactionTemplate.executeWithoutResult(status ->
+        entityManager.find(Team.class, teamId).setName("renamed"));
+
+    assertThat(teamRepository.findByName("cached")).isEmpty();
+    assertThat(teamRepository.findByName("renamed")).extracting("id").containsExactly(teamId);
+    teamRepository.findByName("cached");
+    assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+  }
+
+}
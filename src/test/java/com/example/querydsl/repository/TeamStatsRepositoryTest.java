@@ -0,0 +1,117 @@
+package com.example.querydsl.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.dto.TeamStatsDto;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 통계는 커밋된 변경만 반영하므로 롤백되는 @Transactional 테스트 대신 직접 커밋한다.
+@SpringBootTest
+class TeamStatsRepositoryTest {
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  @Autowired
+  TeamStatsRepository teamStatsRepository;
+
+  TransactionTemplate transactionTemplate;
+  Long fooId;
+  Long barId;
+  Long bazId;
+  Long quxId;
+
+  @BeforeEach
+  void setUp() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.executeWithoutResult(status -> {
+      Team foo = new Team("foo");
+      Team bar = new Team("bar");
+      entityManager.persist(foo);
+      entityManager.persist(bar);
+
+      Member baz = new Member("baz", 10, foo);
+      Member qux = new Member("qux", 20, foo);
+      entityManager.persist(baz);
+      entityManager.persist(qux);
+
+      fooId = foo.getId();
+      barId = bar.getId();
+      bazId = baz.getId();
+      quxId = qux.getId();
+    });
+  }
+
+  @AfterEach
+  void tearDown() {
+    transactionTemplate.executeWithoutResult(status -> {
+      entityManager.createQuery("delete from Member m where m.id in :ids")
+          .setParameter("ids", List.of(bazId, quxId))
+          .executeUpdate();
+      entityManager.createQuery("delete from Team t where t.id in :ids")
+          .setParameter("ids", List.of(fooId, barId))
+          .executeUpdate();
+    });
+    teamStatsRepository.reconcile();
+  }
+
+  @Test
+  void incrementalUpdates() {
+    assertThat(teamStatsRepository.findByTeamId(fooId))
+        .contains(new TeamStatsDto(fooId, "foo", 2, 15.0, 10, 20));
+    assertThat(teamStatsRepository.findByTeamId(barId))
+        .contains(new TeamStatsDto(barId, "bar", 0, null, null, null));
+
+    transactionTemplate.executeWithoutResult(status ->
+        entityManager.find(Member.class, quxId).setAge(40));
+    assertThat(teamStatsRepository.findByTeamId(fooId))
+        .contains(new TeamStatsDto(fooId, "foo", 2, 25.0, 10, 40));
+
+    transactionTemplate.executeWithoutResult(status -> entityManager
+        .find(Member.class, bazId)
+        .changeTeam(entityManager.find(Team.class, barId)));
+    assertThat(teamStatsRepository.findByTeamId(fooId))
+        .contains(new TeamStatsDto(fooId, "foo", 1, 40.0, 40, 40));
+    assertThat(teamStatsRepository.findByTeamId(barId))
+        .contains(new TeamStatsDto(barId, "bar", 1, 10.0, 10, 10));
+
+    // 롤백된 변경은 반영하지 않는다.
+    transactionTemplate.executeWithoutResult(status -> {
+      entityManager.find(Member.class, bazId).setAge(99);
+      entityManager.flush();
+      status.setRollbackOnly();
+    });
+    assertThat(teamStatsRepository.findByTeamId(barId))
+        .contains(new TeamStatsDto(barId, "bar", 1, 10.0, 10, 10));
+  }
+
+  @Test
+  void reconcile() {
+    // 이벤트를 거치지 않는 벌크 연산은 reconcile에서 맞춰진다.
+    transactionTemplate.executeWithoutResult(status -> entityManager
+        .createQuery("update Member m set m.age = 30 where m.id = :id")
+        .setParameter("id", bazId)
+        .executeUpdate());
+    assertThat(teamStatsRepository.findByTeamId(fooId))
+        .contains(new TeamStatsDto(fooId, "foo", 2, 15.0, 10, 20));
+
+    teamStatsRepository.reconcile();
+    assertThat(teamStatsRepository.findByTeamId(fooId))
+        .contains(new TeamStatsDto(fooId, "foo", 2, 25.0, 20, 30));
+  }
+
+}
@@ -0,0 +1,30 @@
+package com.example.querydsl.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class BatchLookupTest {
+
+  BatchLookup batchLookup = new BatchLookup(null, null, 8);
+
+  @Test
+  void padChunksToPowerOfTwo() {
+    List<List<Integer>> chunks = batchLookup.chunks(IntStream.rangeClosed(1, 11).boxed().toList());
+
+    assertThat(chunks).hasSize(2);
+    assertThat(chunks.get(0)).containsExactly(1, 2, 3, 4, 5, 6, 7, 8);
+    assertThat(chunks.get(1)).containsExactly(9, 10, 11, 11);
+  }
+
+  @Test
+  void removeDuplicatesBeforeChunking() {
+    assertThat(batchLookup.chunks(List.of(1, 1, 2, 3, 3)))
+        .containsExactly(List.of(1, 2, 3, 3));
+    assertThat(batchLookup.chunks(List.of(1))).containsExactly(List.of(1));
+    assertThat(batchLookup.chunks(List.of())).isEmpty();
+  }
+
+}
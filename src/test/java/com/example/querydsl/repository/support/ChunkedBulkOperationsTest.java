@@ -0,0 +1,191 @@
+package com.example.querydsl.repository.support;
+
+import static com.example.querydsl.entity.QMember.member;
+import static com.example.querydsl.entity.QTeam.team;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.dto.MemberTeamDto;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.repository.MemberRepository;
+import com.example.querydsl.repository.support.ChunkedBulkOperations.BulkResult;
+import com.example.querydsl.repository.support.ChunkedBulkOperations.Progress;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// chunk마다 커밋하므로 @Transactional 테스트 대신 직접 커밋하고 정리한다. (Team 2차 캐시 확인을 위해 cache 프로필)
+@SpringBootTest(properties = "querydsl.bulk.chunk-size=3")
+@ActiveProfiles("cache")
+class ChunkedBulkOperationsTest {
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  @Autowired
+  ChunkedBulkOperations chunkedBulkOperations;
+
+  @Autowired
+  MemberRepository memberRepository;
+
+  TransactionTemplate transactionTemplate;
+  Long teamId;
+  List<Long> memberIds;
+
+  @BeforeEach
+  void setUp() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    memberIds = new ArrayList<>();
+    teamId = transactionTemplate.execute(status -> {
+      Team bulkTeam = new Team("bulk");
+      entityManager.persist(bulkTeam);
+      for (int i = 0; i < 10; i++) {
+        Member bulkMember = new Member("bulk" + i, i, bulkTeam);
+        entityManager.persist(bulkMember);
+        memberIds.add(bulkMember.getId());
+      }
+      return bulkTeam.getId();
+    });
+  }
+
+  @AfterEach
+  void tearDown() {
+    transactionTemplate.executeWithoutResult(status -> {
+      entityManager.createQuery("delete from Member m where m.team.id = :teamId")
+          .setParameter("teamId", teamId)
+          .executeUpdate();
+      entityManager.createQuery("delete from Team t where t.id = :teamId")
+          .setParameter("teamId", teamId)
+          .executeUpdate();
+    });
+    entityManagerFactory.getCache().evictAll();
+  }
+
+  @Test
+  void updateInIdRangeChunks() {
+    List<Progress> progress = new ArrayList<>();
+
+    BulkResult result = chunkedBulkOperations.update(
+        member, member.id, member.username.startsWith("bulk"),
+        update -> update.set(member.age, member.age.add(100)),
+        progress::add
+    );
+
+    long first = memberIds.get(0);
+    long last = memberIds.get(memberIds.size() - 1);
+    int expectedChunks = (int) ((last - first) / 3 + 1);
+    assertThat(result).isEqualTo(new BulkResult(10, expectedChunks));
+    assertThat(progress).hasSize(expectedChunks);
+    // chunk는 [first + 3k, first + 3k + 2] 범위이고 마지막 chunk는 lastId에서 끝난다.
+    for (int i = 0; i < expectedChunks; i++) {
+      Progress chunk = progress.get(i);
+      assertThat(chunk.chunk()).isEqualTo(i + 1);
+      assertThat(chunk.firstId()).isEqualTo(first);
+      assertThat(chunk.lastId()).isEqualTo(last);
+      assertThat(chunk.currentId()).isEqualTo(Math.min(first + 3L * i + 2, last));
+      assertThat(chunk.affectedRows()).isEqualTo(memberIds.stream()
+          .filter(id -> id <= chunk.currentId())
+          .count());
+    }
+    assertThat(progress.get(expectedChunks - 1).ratio()).isEqualTo(1.0);
+    assertThat(ages()).containsExactly(100, 101, 102, 103, 104, 105, 106, 107, 108, 109);
+  }
+
+  @Test
+  void rangeFollowsPredicate() {
+    List<Progress> progress = new ArrayList<>();
+
+    BulkResult result = chunkedBulkOperations.update(
+        member, member.id, member.username.startsWith("bulk").and(member.age.goe(6)),
+        update -> update.set(member.age, 0),
+        progress::add
+    );
+
+    // 범위는 조건에 맞는 id의 min/max(age 6~9인 4명)만 나눈다.
+    assertThat(result.affectedRows()).isEqualTo(4);
+    assertThat(progress.get(0).firstId()).isEqualTo(memberIds.get(6));
+    assertThat(progress.get(progress.size() - 1).lastId()).isEqualTo(memberIds.get(9));
+    assertThat(ages()).containsExactly(0, 1, 2, 3, 4, 5, 0, 0, 0, 0);
+  }
+
+  @Test
+  void deleteReportsAffectedRows() {
+    BulkResult result = chunkedBulkOperations.delete(
+        member, member.id, member.username.startsWith("bulk").and(member.age.lt(5)));
+
+    assertThat(result.affectedRows()).isEqualTo(5);
+    assertThat(ages()).containsExactly(5, 6, 7, 8, 9);
+  }
+
+  @Test
+  void noMatchingRowsRunsNoChunks() {
+    List<Progress> progress = new ArrayList<>();
+
+    BulkResult result = chunkedBulkOperations.delete(
+        member, member.id, member.username.eq("nobody"), progress::add);
+
+    assertThat(result).isEqualTo(new BulkResult(0, 0));
+    assertThat(progress).isEmpty();
+  }
+
+  @Test
+  void rejectCallerTransaction() {
+    assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> chunkedBulkOperations
+        .delete(member, member.id, member.username.startsWith("bulk"))))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("must not run inside a transaction");
+
+    assertThat(ages()).hasSize(10);
+  }
+
+  @Test
+  void evictSecondLevelCache() {
+    transactionTemplate.executeWithoutResult(status -> entityManager.find(Team.class, teamId));
+    assertThat(entityManagerFactory.getCache().contains(Team.class, teamId)).isTrue();
+
+    chunkedBulkOperations.update(team, team.id, team.id.eq(teamId), update -> update.set(team.name, "renamed"));
+
+    assertThat(entityManagerFactory.getCache().contains(Team.class, teamId)).isFalse();
+    String name = transactionTemplate.execute(status -> entityManager.find(Team.class, teamId).getName());
+    assertThat(name).isEqualTo("renamed");
+  }
+
+  @Test
+  void rebuildUsernameIndexAfterBulkUpdate() {
+    chunkedBulkOperations.update(
+        member, member.id, member.username.eq("bulk3"), update -> update.set(member.username, "chunkRenamed3"));
+
+    // 벌크 update는 엔티티 리스너를 거치지 않으므로 끝난 뒤 username 인덱스를 다시 만든다.
+    MemberSearchCondition condition = new MemberSearchCondition();
+    condition.setUsernameContains("kRenamed");
+    assertThat(memberRepository.search(condition))
+        .extracting(MemberTeamDto::getMemberId)
+        .containsExactly(memberIds.get(3));
+  }
+
+  private List<Integer> ages() {
+    return transactionTemplate.execute(status -> entityManager
+        .createQuery("select m.age from Member m where m.team.id = :teamId order by m.id", Integer.class)
+        .setParameter("teamId", teamId)
+        .getResultList());
+  }
+
+}
@@ -0,0 +1,110 @@
+package com.example.querydsl.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.dto.MemberSearchCondition;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.metrics.StatementBudget;
+import com.example.querydsl.repository.MemberTestRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 동시 count는 호출자 트랜잭션 밖에서만 별도 스레드로 실행되므로 데이터를 직접 커밋한다.
+@SpringBootTest
+class ConcurrentCountTest {
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  @Autowired
+  MemberTestRepository memberTestRepository;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  TransactionTemplate transactionTemplate;
+  Long teamId;
+
+  @BeforeEach
+  void setUp() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.executeWithoutResult(status -> {
+      Team team = new Team("concurrentCount");
+      entityManager.persist(team);
+      for (int i = 0; i < 5; i++) {
+        entityManager.persist(new Member("member" + i, 10 + i, team));
+      }
+      teamId = team.getId();
+    });
+  }
+
+  @AfterEach
+  void tearDown() {
+    memberTestRepository.setConcurrentCount(false);
+    transactionTemplate.executeWithoutResult(status -> {
+      entityManager.createQuery("delete from Member m where m.team.id = :teamId")
+          .setParameter("teamId", teamId)
+          .executeUpdate();
+      entityManager.createQuery("delete from Team t where t.id = :teamId")
+          .setParameter("teamId", teamId)
+          .executeUpdate();
+    });
+  }
+
+  @Test
+  void concurrentAndSequentialTotalsMatch() {
+    MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+    memberSearchCondition.setTeamName("concurrentCount");
+
+    for (PageRequest pageRequest : List.of(
+        PageRequest.of(0, 2),
+        PageRequest.of(1, 2),
+        PageRequest.of(2, 2),
+        PageRequest.of(5, 2)
+    )) {
+      memberTestRepository.setConcurrentCount(false);
+      Page<Member> sequential = memberTestRepository.applyPagination2(memberSearchCondition, pageRequest);
+      memberTestRepository.setConcurrentCount(true);
+      Page<Member> concurrent = memberTestRepository.applyPagination2(memberSearchCondition, pageRequest);
+
+      assertThat(concurrent.getTotalElements()).isEqualTo(sequential.getTotalElements()).isEqualTo(5);
+      assertThat(concurrent.getContent())
+          .extracting("username")
+          .containsExactlyElementsOf(sequential.getContent().stream().map(Member::getUsername).toList());
+    }
+  }
+
+  @Test
+  void countStatementIsAttributedToCaller() {
+    MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+    memberSearchCondition.setTeamName("concurrentCount");
+    memberTestRepository.setConcurrentCount(true);
+    double parallel = meterRegistry.counter("repository.parallel-query", "mode", "parallel").count();
+
+    try (StatementBudget budget = StatementBudget.open("test", 100, 5, false)) {
+      Page<Member> page = memberTestRepository.applyPagination2(memberSearchCondition, PageRequest.of(1, 2));
+
+      assertThat(page.getTotalElements()).isEqualTo(5);
+      // content + count (count는 가상 스레드에서 실행)
+      assertThat(budget.statements()).isEqualTo(2);
+    }
+    assertThat(meterRegistry.counter("repository.parallel-query", "mode", "parallel").count())
+        .isEqualTo(parallel + 1);
+  }
+
+}
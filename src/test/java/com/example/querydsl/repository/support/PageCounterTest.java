@@ -0,0 +1,134 @@
+package com.example.querydsl.repository.support;
+
+import static com.example.querydsl.entity.QMember.member;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.entity.Member;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@Transactional
+class PageCounterTest {
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @BeforeEach
+  void setUp() {
+    for (int i = 0; i < 5; i++) {
+      entityManager.persist(new Member("member" + i, i, null));
+    }
+    entityManager.flush();
+  }
+
+  @Test
+  void capEstimatedCountAtThreshold() {
+    PageCounter pageCounter = new PageCounter(entityManager, meterRegistry, Duration.ofSeconds(30), 10, 3);
+
+    CountedPage<String> page = pageCounter.getPage(
+        List.of("a", "b"), PageRequest.of(0, 2), CountStrategy.ESTIMATED, "key", countQuery());
+
+    assertThat(page.getTotalElements()).isEqualTo(3);
+    assertThat(page.isTotalCapped()).isTrue();
+  }
+
+  @Test
+  void cappedPagePastThresholdHasNext() {
+    PageCounter pageCounter = new PageCounter(entityManager, meterRegistry, Duration.ofSeconds(30), 10, 3);
+
+    // 임계치(3)를 넘은 위치의 꽉 찬 페이지: 잘린 total만 보면 마지막 페이지
+    CountedPage<String> page = pageCounter.getPage(
+        List.of("e", "f"), PageRequest.of(2, 2), CountStrategy.ESTIMATED, "key", countQuery());
+
+    assertThat(page.isTotalCapped()).isTrue();
+    assertThat(page.hasNext()).isTrue();
+    assertThat(page.isLast()).isFalse();
+    assertThat(page.getTotalPages()).isEqualTo(4);
+  }
+
+  @Test
+  void estimatedCountBelowThresholdIsExact() {
+    PageCounter pageCounter = new PageCounter(entityManager, meterRegistry, Duration.ofSeconds(30), 10, 5);
+
+    CountedPage<String> page = pageCounter.getPage(
+        List.of("a", "b"), PageRequest.of(0, 2), CountStrategy.ESTIMATED, "key", countQuery());
+
+    assertThat(page.getTotalElements()).isEqualTo(5);
+    assertThat(page.isTotalCapped()).isFalse();
+    assertThat(page.hasNext()).isTrue();
+    assertThat(page.getTotalPages()).isEqualTo(3);
+  }
+
+  @Test
+  void estimatedCountBindsConditions() {
+    PageCounter pageCounter = new PageCounter(entityManager, meterRegistry, Duration.ofSeconds(30), 10, 10);
+
+    CountedPage<String> page = pageCounter.getPage(
+        List.of("a", "b"), PageRequest.of(0, 2), CountStrategy.ESTIMATED, "key",
+        countQuery().where(member.age.goe(1), member.username.startsWith("member")));
+
+    assertThat(page.getTotalElements()).isEqualTo(4);
+    assertThat(page.isTotalCapped()).isFalse();
+  }
+
+  @Test
+  void cachedCountIsReusedWithinTtl() {
+    PageCounter pageCounter = new PageCounter(entityManager, meterRegistry, Duration.ofMinutes(1), 10, 3);
+    getPage(pageCounter, CountStrategy.CACHED);
+
+    entityManager.persist(new Member("member5", 5, null));
+    entityManager.flush();
+
+    assertThat(getPage(pageCounter, CountStrategy.CACHED).getTotalElements()).isEqualTo(5);
+    assertThat(getPage(pageCounter, CountStrategy.EXACT).getTotalElements()).isEqualTo(6);
+
+    pageCounter.evictAll();
+    assertThat(getPage(pageCounter, CountStrategy.CACHED).getTotalElements()).isEqualTo(6);
+  }
+
+  @Test
+  void skipCountWhenContentDeterminesTotal() {
+    PageCounter pageCounter = new PageCounter(entityManager, meterRegistry, Duration.ofSeconds(30), 10, 3);
+
+    CountedPage<String> page = pageCounter.getPage(
+        List.of("a"), PageRequest.of(2, 2), CountStrategy.EXACT, "key", countQuery());
+
+    assertThat(page.getTotalElements()).isEqualTo(5);
+    assertThat(meterRegistry.counter("repository.page.count", "strategy", "EXACT", "skipped", "true").count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.counter("repository.page.count", "strategy", "EXACT", "skipped", "false").count())
+        .isZero();
+  }
+
+  @Test
+  void knownTotal() {
+    assertThat(PageCounter.knownTotal(3, PageRequest.of(0, 5))).hasValue(3);
+    assertThat(PageCounter.knownTotal(5, PageRequest.of(0, 5))).isEmpty();
+    assertThat(PageCounter.knownTotal(2, PageRequest.of(3, 5))).hasValue(17);
+    assertThat(PageCounter.knownTotal(0, PageRequest.of(3, 5))).isEmpty();
+    assertThat(PageCounter.knownTotal(7, Pageable.unpaged())).hasValue(7);
+  }
+
+  private CountedPage<String> getPage(PageCounter pageCounter, CountStrategy countStrategy) {
+    return pageCounter.getPage(List.of("a", "b"), PageRequest.of(0, 2), countStrategy, "key", countQuery());
+  }
+
+  private JPQLQuery<Member> countQuery() {
+    return new JPAQueryFactory(entityManager).selectFrom(member);
+  }
+
+}
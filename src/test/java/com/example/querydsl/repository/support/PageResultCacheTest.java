@@ -0,0 +1,104 @@
+package com.example.querydsl.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import com.example.querydsl.repository.support.EntityChange.Kind;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import org.junit.jupiter.api.Test;
+
+class PageResultCacheTest {
+
+  SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  PageResultCache pageResultCache = new PageResultCache(meterRegistry, true, 2);
+  AtomicInteger loads = new AtomicInteger();
+
+  @Test
+  void hitAndMiss() {
+    assertThat(load("a")).isEqualTo("a1");
+    assertThat(load("a")).isEqualTo("a1");
+    assertThat(load("b")).isEqualTo("b2");
+
+    assertThat(count("repository.page-cache", "result", "hit")).isEqualTo(1);
+    assertThat(count("repository.page-cache", "result", "miss")).isEqualTo(2);
+  }
+
+  @Test
+  void evictLeastRecentlyUsed() {
+    load("a");
+    load("b");
+    load("a");
+    load("c");
+
+    assertThat(pageResultCache.size()).isEqualTo(2);
+    assertThat(count("repository.page-cache.evictions", "cause", "size")).isEqualTo(1);
+    assertThat(load("a")).isEqualTo("a1");
+    assertThat(load("b")).isEqualTo("b4");
+  }
+
+  @Test
+  void invalidateOnlyAffectedEntries() {
+    load("a");
+    load("b");
+
+    pageResultCache.invalidate(change(Team.class, Map.of("name", "foo")));
+    assertThat(pageResultCache.size()).isEqualTo(2);
+
+    pageResultCache.invalidate(change(Member.class, Map.of("username", "a")));
+    assertThat(pageResultCache.size()).isEqualTo(1);
+    assertThat(count("repository.page-cache.evictions", "cause", "invalidation")).isEqualTo(1);
+    assertThat(load("a")).isEqualTo("a3");
+    assertThat(load("b")).isEqualTo("b2");
+  }
+
+  @Test
+  void bulkChangeInvalidatesEntity() {
+    load("a");
+    load("b");
+
+    pageResultCache.invalidate(EntityChange.bulk(Member.class));
+    assertThat(pageResultCache.size()).isZero();
+  }
+
+  @Test
+  void callersCannotChangeCachedValue() {
+    List<String> loaded = pageResultCache.execute(
+        "test", "list", () -> new ArrayList<>(List.of("a")), ArrayList::new, (value, change) -> false);
+    loaded.add("changed");
+
+    List<String> first = pageResultCache.execute(
+        "test", "list", () -> new ArrayList<>(List.of("b")), ArrayList::new, (value, change) -> false);
+    first.add("changed");
+    List<String> second = pageResultCache.execute(
+        "test", "list", () -> new ArrayList<>(List.of("b")), ArrayList::new, (value, change) -> false);
+
+    assertThat(second).containsExactly("a").isNotSameAs(first);
+  }
+
+  // Member 변경 중 username이 키와 같은 것에만 영향을 받는 항목
+  private String load(String key) {
+    return pageResultCache.execute(
+        "test",
+        key,
+        () -> key + loads.incrementAndGet(),
+        UnaryOperator.identity(),
+        (value, change) -> change.entityType() == Member.class
+            && (change.isUnknown() || key.equals(change.newState().get("username")))
+    );
+  }
+
+  private static EntityChange change(Class<?> entityType, Map<String, Object> newState) {
+    return new EntityChange(Kind.INSERT, entityType, 1L, null, newState);
+  }
+
+  private double count(String name, String tagKey, String tagValue) {
+    return meterRegistry.counter(name, tagKey, tagValue).count();
+  }
+
+}
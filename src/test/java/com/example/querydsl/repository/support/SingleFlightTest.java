@@ -0,0 +1,143 @@
+package com.example.querydsl.repository.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+  SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  CountDownLatch leaderStarted = new CountDownLatch(1);
+  CountDownLatch releaseLeader = new CountDownLatch(1);
+  AtomicInteger calls = new AtomicInteger();
+
+  @AfterEach
+  void tearDown() {
+    releaseLeader.countDown();
+    executor.close();
+  }
+
+  @Test
+  void collapseConcurrentCallsAndCopyResult() throws Exception {
+    SingleFlight singleFlight = new SingleFlight(meterRegistry, Duration.ofSeconds(10));
+
+    Future<List<String>> leader = executor.submit(() -> execute(singleFlight, blockingCall(() -> "result")));
+    assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+    Future<List<String>> follower = executor.submit(() -> execute(singleFlight, () -> List.of("unused")));
+    awaitCollapsed(1);
+    releaseLeader.countDown();
+
+    List<String> leaderResult = leader.get(5, TimeUnit.SECONDS);
+    List<String> followerResult = follower.get(5, TimeUnit.SECONDS);
+    assertThat(calls).hasValue(1);
+    assertThat(followerResult).containsExactly("result").isNotSameAs(leaderResult);
+    // 한 호출자가 결과를 바꿔도 다른 호출자에게는 보이지 않는다.
+    leaderResult.add("changed");
+    assertThat(followerResult).containsExactly("result");
+  }
+
+  @Test
+  void propagateLeaderException() throws Exception {
+    SingleFlight singleFlight = new SingleFlight(meterRegistry, Duration.ofSeconds(10));
+    IllegalStateException failure = new IllegalStateException("boom");
+
+    Future<List<String>> leader = executor.submit(() -> execute(singleFlight, blockingCall(() -> {
+      throw failure;
+    })));
+    assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+    Future<List<String>> follower = executor.submit(() -> execute(singleFlight, () -> List.of("unused")));
+    awaitCollapsed(1);
+    releaseLeader.countDown();
+
+    assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCause(failure);
+    assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+        .isInstanceOf(ExecutionException.class)
+        .hasCause(failure);
+    assertThat(calls).hasValue(1);
+  }
+
+  @Test
+  void removeKeyWhenCallCompletes() {
+    SingleFlight singleFlight = new SingleFlight(meterRegistry, Duration.ofSeconds(10));
+
+    assertThatThrownBy(() -> execute(singleFlight, () -> {
+      calls.incrementAndGet();
+      throw new IllegalStateException("boom");
+    })).isInstanceOf(IllegalStateException.class);
+    execute(singleFlight, () -> {
+      calls.incrementAndGet();
+      return List.of("first");
+    });
+    List<String> result = execute(singleFlight, () -> {
+      calls.incrementAndGet();
+      return List.of("second");
+    });
+
+    // 끝난 호출의 키는 남지 않으므로 이후 호출은 새로 실행한다.
+    assertThat(result).containsExactly("second");
+    assertThat(calls).hasValue(3);
+  }
+
+  @Test
+  void runOwnCallAfterMaxWait() throws Exception {
+    SingleFlight singleFlight = new SingleFlight(meterRegistry, Duration.ofMillis(50));
+
+    Future<List<String>> leader = executor.submit(() -> execute(singleFlight, blockingCall(() -> "leader")));
+    assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+    List<String> result = execute(singleFlight, () -> {
+      calls.incrementAndGet();
+      return new ArrayList<>(List.of("own"));
+    });
+
+    assertThat(result).containsExactly("own");
+    assertThat(meterRegistry.counter("repository.singleflight.timeout", "name", "test").count()).isEqualTo(1);
+    releaseLeader.countDown();
+    assertThat(leader.get(5, TimeUnit.SECONDS)).containsExactly("leader");
+  }
+
+  private List<String> execute(SingleFlight singleFlight, Supplier<List<String>> call) {
+    return singleFlight.execute("test", "key", call, ArrayList::new);
+  }
+
+  // 풀어줄 때까지 실행 중인 상태로 머무는 호출
+  private Supplier<List<String>> blockingCall(Supplier<String> result) {
+    return () -> {
+      calls.incrementAndGet();
+      leaderStarted.countDown();
+      try {
+        releaseLeader.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      }
+      return new ArrayList<>(List.of(result.get()));
+    };
+  }
+
+  private void awaitCollapsed(int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (meterRegistry.counter("repository.singleflight.collapsed", "name", "test").count() < expected) {
+      assertThat(System.nanoTime()).isLessThan(deadline);
+      Thread.sleep(5);
+    }
+  }
+
+}
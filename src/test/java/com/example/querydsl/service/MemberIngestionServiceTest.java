@@ -0,0 +1,132 @@
+package com.example.querydsl.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.querydsl.dto.MemberIngestRow;
+import com.example.querydsl.entity.Member;
+import com.example.querydsl.entity.Team;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// 적재는 chunk마다 직접 커밋하므로 롤백되는 @Transactional 테스트 대신 직접 정리한다.
+@SpringBootTest(properties = "querydsl.ingest.chunk-size=2")
+class MemberIngestionServiceTest {
+
+  private static final List<String> TEAMS = List.of("ingestFoo", "ingestBar", "ingestBaz");
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  @Autowired
+  MemberIngestionService memberIngestionService;
+
+  TransactionTemplate transactionTemplate;
+
+  @BeforeEach
+  void setUp() {
+    transactionTemplate = new TransactionTemplate(transactionManager);
+    transactionTemplate.executeWithoutResult(status -> entityManager.persist(new Team("ingestFoo")));
+  }
+
+  @AfterEach
+  void tearDown() {
+    transactionTemplate.executeWithoutResult(status -> {
+      entityManager.createQuery("delete from Member m where m.username like 'ingest%'")
+          .executeUpdate();
+      entityManager.createQuery("delete from Team t where t.name in :names")
+          .setParameter("names", TEAMS)
+          .executeUpdate();
+    });
+  }
+
+  @Test
+  void reuseExistingTeams() {
+    MemberIngestionService.IngestionReport report = memberIngestionService.ingest(Stream.of(
+        new MemberIngestRow("ingest1", 10, "ingestFoo"),
+        new MemberIngestRow("ingest2", 20, "ingestBar"),
+        new MemberIngestRow("ingest3", 30, "ingestFoo"),
+        new MemberIngestRow("ingest4", 40, "ingestBar"),
+        new MemberIngestRow("ingest5", 50, null)
+    ).iterator());
+
+    assertThat(report.members()).isEqualTo(5);
+    assertThat(report.teams()).isEqualTo(1);
+    assertThat(teamCount("ingestFoo")).isEqualTo(1);
+    assertThat(teamCount("ingestBar")).isEqualTo(1);
+    assertThat(teamNameOf("ingest1")).isEqualTo("ingestFoo");
+    assertThat(teamNameOf("ingest3")).isEqualTo("ingestFoo");
+    assertThat(teamNameOf("ingest4")).isEqualTo("ingestBar");
+    assertThat(teamNameOf("ingest5")).isNull();
+
+    // 다시 적재해도 팀은 늘지 않는다.
+    memberIngestionService.ingest(List.of(new MemberIngestRow("ingest6", 60, "ingestBar")).iterator());
+    assertThat(teamCount("ingestBar")).isEqualTo(1);
+  }
+
+  @Test
+  void rollBackFailedChunkOnly() {
+    Iterator<MemberIngestRow> failing = Stream.<MemberIngestRow>of(
+        new MemberIngestRow("ingest1", 10, "ingestFoo"),
+        new MemberIngestRow("ingest2", 20, "ingestBar"),
+        new MemberIngestRow("ingest3", 30, "ingestBaz"),
+        null
+    ).map(row -> {
+      if (row == null) {
+        throw new IllegalStateException("broken input");
+      }
+      return row;
+    }).iterator();
+
+    assertThatThrownBy(() -> memberIngestionService.ingest(failing))
+        .isInstanceOf(IllegalStateException.class);
+
+    // 첫 chunk(ingest1, ingest2)만 커밋되고 두 번째 chunk의 회원과 새 팀은 롤백
+    assertThat(memberCount("ingest1")).isEqualTo(1);
+    assertThat(memberCount("ingest2")).isEqualTo(1);
+    assertThat(memberCount("ingest3")).isZero();
+    assertThat(teamCount("ingestBaz")).isZero();
+
+    memberIngestionService.ingest(Stream.of(
+        new MemberIngestRow("ingest3", 30, "ingestBaz"),
+        new MemberIngestRow("ingest4", 40, "ingestBar")
+    ).iterator());
+
+    assertThat(teamCount("ingestBaz")).isEqualTo(1);
+    assertThat(teamCount("ingestBar")).isEqualTo(1);
+    assertThat(teamNameOf("ingest3")).isEqualTo("ingestBaz");
+  }
+
+  private long teamCount(String name) {
+    return entityManager.createQuery("select count(t) from Team t where t.name = :name", Long.class)
+        .setParameter("name", name)
+        .getSingleResult();
+  }
+
+  private long memberCount(String username) {
+    return entityManager.createQuery("select count(m) from Member m where m.username = :username", Long.class)
+        .setParameter("username", username)
+        .getSingleResult();
+  }
+
+  private String teamNameOf(String username) {
+    return entityManager
+        .createQuery("select t.name from Member m left join m.team t where m.username = :username", String.class)
+        .setParameter("username", username)
+        .getSingleResult();
+  }
+
+}
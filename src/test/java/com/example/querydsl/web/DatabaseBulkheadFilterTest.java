@@ -0,0 +1,138 @@
+package com.example.querydsl.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class DatabaseBulkheadFilterTest {
+
+  SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  CountDownLatch entered = new CountDownLatch(1);
+  CountDownLatch release = new CountDownLatch(1);
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+  }
+
+  @Test
+  void passThroughWithinLimit() throws Exception {
+    DatabaseBulkheadFilter filter = new DatabaseBulkheadFilter(1, 0, Duration.ZERO, meterRegistry);
+
+    assertThat(filter(filter).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+    assertThat(filter(filter).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+    assertThat(meterRegistry.counter("bulkhead.rejected").count()).isZero();
+  }
+
+  @Test
+  void rejectImmediatelyWhenQueueIsFull() throws Exception {
+    DatabaseBulkheadFilter filter = new DatabaseBulkheadFilter(1, 0, Duration.ofSeconds(10), meterRegistry);
+    holdPermit(filter);
+
+    long started = System.nanoTime();
+    MockHttpServletResponse response = filter(filter);
+
+    assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+    assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+    assertThat(meterRegistry.counter("bulkhead.rejected").count()).isEqualTo(1);
+  }
+
+  @Test
+  void rejectAfterMaxWait() throws Exception {
+    DatabaseBulkheadFilter filter = new DatabaseBulkheadFilter(1, 1, Duration.ofMillis(100), meterRegistry);
+    holdPermit(filter);
+
+    long started = System.nanoTime();
+    MockHttpServletResponse response = filter(filter);
+
+    assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    assertThat(Duration.ofNanos(System.nanoTime() - started)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+    assertThat(gauge("bulkhead.queue.depth")).isZero();
+  }
+
+  @Test
+  void admitQueuedRequestWhenPermitIsReleased() throws Exception {
+    DatabaseBulkheadFilter filter = new DatabaseBulkheadFilter(1, 1, Duration.ofSeconds(10), meterRegistry);
+    holdPermit(filter);
+    assertThat(gauge("bulkhead.in.flight")).isEqualTo(1);
+
+    CompletableFuture<MockHttpServletResponse> queued = CompletableFuture.supplyAsync(() -> {
+      try {
+        return filter(filter);
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    while (gauge("bulkhead.queue.depth") < 1) {
+      Thread.sleep(10);
+    }
+    release.countDown();
+
+    assertThat(queued.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+    assertThat(gauge("bulkhead.queue.depth")).isZero();
+    assertThat(meterRegistry.counter("bulkhead.rejected").count()).isZero();
+  }
+
+  @Test
+  void releasePermitWhenRequestFails() throws Exception {
+    DatabaseBulkheadFilter filter = new DatabaseBulkheadFilter(1, 0, Duration.ZERO, meterRegistry);
+
+    assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+        (request, response) -> {
+          throw new IllegalStateException("boom");
+        }))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(filter(filter).getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+  }
+
+  @Test
+  void permitsLeaveRoomForParallelQueries() {
+    assertThat(BulkheadConfig.requestPermits(10, 4)).isEqualTo(6);
+    assertThatThrownBy(() -> BulkheadConfig.requestPermits(4, 4))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  // 다른 스레드에서 허가를 하나 잡고 release 될 때까지 붙잡고 있는 요청
+  private void holdPermit(DatabaseBulkheadFilter filter) throws InterruptedException {
+    FilterChain blocking = (request, response) -> {
+      entered.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    };
+    Thread.ofVirtual().start(() -> {
+      try {
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), blocking);
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  private MockHttpServletResponse filter(DatabaseBulkheadFilter filter) throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(new MockHttpServletRequest(), response, (request, servletResponse) -> {
+    });
+    return response;
+  }
+
+  private double gauge(String name) {
+    return meterRegistry.get(name).gauge().value();
+  }
+
+}